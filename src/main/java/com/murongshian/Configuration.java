@@ -1,5 +1,12 @@
 package com.murongshian;
 
+import com.murongshian.mvc.compress.Compression;
+import com.murongshian.mvc.executor.PriorityScheduler;
+import com.murongshian.mvc.invoker.InvokerType;
+import com.murongshian.mvc.limit.AdaptiveLimiter;
+import com.murongshian.mvc.serializer.FastJsonSerializer;
+import com.murongshian.mvc.serializer.MessageSerializer;
+
 /**
  * 服务器相关配置
  */
@@ -39,6 +46,86 @@ public class Configuration {
      */
     private String contextPath;
 
+    /**
+     * controller方法调用方式
+     */
+    private InvokerType invokerType = InvokerType.METHOD_HANDLE;
+
+    /**
+     * 请求体最大长度(字节)
+     */
+    private long maxRequestBodySize = 10 * 1024 * 1024;
+
+    /**
+     * 异步请求超时时间(毫秒), 不大于0时不超时
+     */
+    private long asyncTimeout = 30000;
+
+    /**
+     * 全局自适应并发限制器, 为null时不限制
+     */
+    private AdaptiveLimiter concurrencyLimiter = null;
+
+    /**
+     * 按优先级调度controller的线程池, 为null时在请求线程中执行
+     */
+    private PriorityScheduler priorityScheduler = null;
+
+    /**
+     * 批量请求路径, 为空时不开启批量请求
+     */
+    private String batchPath = null;
+
+    /**
+     * 单个批量请求最多包含的子请求数
+     */
+    private int batchMaxSize = 20;
+
+    /**
+     * 批量请求执行器线程数, 为0时使用默认值
+     */
+    private int batchThreads = 0;
+
+    /**
+     * 并行调用执行器线程数, 为0时使用默认值
+     */
+    private int fanOutThreads = 0;
+
+    /**
+     * @ResponseBody返回值的默认序列化实现
+     */
+    private MessageSerializer messageSerializer = FastJsonSerializer.INSTANCE;
+
+    /**
+     * 是否支持按Accept: application/x-doodle-binary返回二进制格式
+     */
+    private boolean binaryFormat = false;
+
+    /**
+     * 响应压缩配置, 为空时不压缩
+     */
+    private Compression compression = null;
+
+    /**
+     * 是否为渲染的响应生成ETag, If-None-Match匹配时响应304
+     */
+    private boolean etag = false;
+
+    /**
+     * @CacheResponse响应缓存的最大总字节数
+     */
+    private long responseCacheSize = 64L * 1024 * 1024;
+
+    /**
+     * 并行调用执行器等待队列长度
+     */
+    private int fanOutQueueSize = 1000;
+
+    /**
+     * 响应缓存后台刷新执行器等待队列长度
+     */
+    private int responseCacheRefreshQueueSize = 1000;
+
     public Configuration(Class<?> bootClass,String resourcePath,String viewPath,String assetPath,int serverPort,String docBase,String contextPath){
         this.bootClass = bootClass;
         this.resourcePath = resourcePath;
@@ -49,6 +136,26 @@ public class Configuration {
         this.contextPath = contextPath;
     }
 
+    private Configuration(Configuration.ConfigurationBuilder builder){
+        this(builder.bootClass,builder.resourcePath,builder.viewPath,builder.assetPath,builder.serverPort,builder.docBase,builder.contextPath);
+        this.invokerType = builder.invokerType;
+        this.maxRequestBodySize = builder.maxRequestBodySize;
+        this.asyncTimeout = builder.asyncTimeout;
+        this.concurrencyLimiter = builder.concurrencyLimiter;
+        this.priorityScheduler = builder.priorityScheduler;
+        this.batchPath = builder.batchPath;
+        this.batchMaxSize = builder.batchMaxSize;
+        this.batchThreads = builder.batchThreads;
+        this.fanOutThreads = builder.fanOutThreads;
+        this.messageSerializer = builder.messageSerializer;
+        this.binaryFormat = builder.binaryFormat;
+        this.compression = builder.compression;
+        this.etag = builder.etag;
+        this.responseCacheSize = builder.responseCacheSize;
+        this.fanOutQueueSize = builder.fanOutQueueSize;
+        this.responseCacheRefreshQueueSize = builder.responseCacheRefreshQueueSize;
+    }
+
     public Class<?> getBootClass() {
         return bootClass;
     }
@@ -77,6 +184,70 @@ public class Configuration {
         return resourcePath;
     }
 
+    public InvokerType getInvokerType() {
+        return invokerType;
+    }
+
+    public long getMaxRequestBodySize() {
+        return maxRequestBodySize;
+    }
+
+    public long getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    public AdaptiveLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    public PriorityScheduler getPriorityScheduler() {
+        return priorityScheduler;
+    }
+
+    public String getBatchPath() {
+        return batchPath;
+    }
+
+    public int getBatchMaxSize() {
+        return batchMaxSize;
+    }
+
+    public int getBatchThreads() {
+        return batchThreads;
+    }
+
+    public int getFanOutThreads() {
+        return fanOutThreads;
+    }
+
+    public MessageSerializer getMessageSerializer() {
+        return messageSerializer;
+    }
+
+    public boolean isBinaryFormat() {
+        return binaryFormat;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public boolean isEtag() {
+        return etag;
+    }
+
+    public long getResponseCacheSize() {
+        return responseCacheSize;
+    }
+
+    public int getFanOutQueueSize() {
+        return fanOutQueueSize;
+    }
+
+    public int getResponseCacheRefreshQueueSize() {
+        return responseCacheRefreshQueueSize;
+    }
+
     public static Configuration.ConfigurationBuilder builder(){
         return new Configuration.ConfigurationBuilder();
     }
@@ -97,6 +268,38 @@ public class Configuration {
 
         private String contextPath = "";
 
+        private InvokerType invokerType = InvokerType.METHOD_HANDLE;
+
+        private long maxRequestBodySize = 10 * 1024 * 1024;
+
+        private long asyncTimeout = 30000;
+
+        private AdaptiveLimiter concurrencyLimiter = null;
+
+        private PriorityScheduler priorityScheduler = null;
+
+        private String batchPath = null;
+
+        private int batchMaxSize = 20;
+
+        private int batchThreads = 0;
+
+        private int fanOutThreads = 0;
+
+        private MessageSerializer messageSerializer = FastJsonSerializer.INSTANCE;
+
+        private boolean binaryFormat = false;
+
+        private Compression compression = null;
+
+        private boolean etag = false;
+
+        private long responseCacheSize = 64L * 1024 * 1024;
+
+        private int fanOutQueueSize = 1000;
+
+        private int responseCacheRefreshQueueSize = 1000;
+
         ConfigurationBuilder(){}
 
         public Configuration.ConfigurationBuilder bootClass(Class<?> bootClass){
@@ -134,8 +337,88 @@ public class Configuration {
             return this;
         }
 
+        public Configuration.ConfigurationBuilder invokerType(InvokerType invokerType){
+            this.invokerType = invokerType;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder maxRequestBodySize(long maxRequestBodySize){
+            this.maxRequestBodySize = maxRequestBodySize;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder asyncTimeout(long asyncTimeout){
+            this.asyncTimeout = asyncTimeout;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder concurrencyLimiter(AdaptiveLimiter concurrencyLimiter){
+            this.concurrencyLimiter = concurrencyLimiter;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder priorityScheduler(PriorityScheduler priorityScheduler){
+            this.priorityScheduler = priorityScheduler;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder batchPath(String batchPath){
+            this.batchPath = batchPath;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder batchMaxSize(int batchMaxSize){
+            this.batchMaxSize = batchMaxSize;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder batchThreads(int batchThreads){
+            this.batchThreads = batchThreads;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder fanOutThreads(int fanOutThreads){
+            this.fanOutThreads = fanOutThreads;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder messageSerializer(MessageSerializer messageSerializer){
+            this.messageSerializer = messageSerializer;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder binaryFormat(boolean binaryFormat){
+            this.binaryFormat = binaryFormat;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder compression(Compression compression){
+            this.compression = compression;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder etag(boolean etag){
+            this.etag = etag;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder responseCacheSize(long responseCacheSize){
+            this.responseCacheSize = responseCacheSize;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder fanOutQueueSize(int fanOutQueueSize){
+            this.fanOutQueueSize = fanOutQueueSize;
+            return this;
+        }
+
+        public Configuration.ConfigurationBuilder responseCacheRefreshQueueSize(int responseCacheRefreshQueueSize){
+            this.responseCacheRefreshQueueSize = responseCacheRefreshQueueSize;
+            return this;
+        }
+
         public Configuration build(){
-            return new Configuration(bootClass,resourcePath,viewPath,assetPath,serverPort,docBase,contextPath);
+            return new Configuration(this);
         }
     }
 }
\ No newline at end of file
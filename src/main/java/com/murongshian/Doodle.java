@@ -2,6 +2,8 @@ package com.murongshian;
 
 import com.murongshian.core.BeanContainer;
 import com.murongshian.ioc.Ioc;
+import com.murongshian.mvc.cache.ResponseCache;
+import com.murongshian.mvc.fanout.FanOut;
 import com.murongshian.mvc.server.TomcatServer;
 import com.murongshian.aop.Aop;
 import com.murongshian.mvc.server.Server;
@@ -80,6 +82,11 @@ public final class Doodle {
             BeanContainer.getInstance().loadBeans(basePackage);
 
             new Aop().doAop();
+            // 框架提供的bean, 在Ioc之前注册以便注入; 线程池在第一次使用时创建
+            BeanContainer.getInstance().addBean(FanOut.class, new FanOut(configuration.getFanOutThreads(),
+                    configuration.getFanOutQueueSize()));
+            BeanContainer.getInstance().addBean(ResponseCache.class, new ResponseCache(configuration.getResponseCacheSize(),
+                    configuration.getResponseCacheRefreshQueueSize()));
             new Ioc().doIoc();
 
             server = new TomcatServer(configuration);
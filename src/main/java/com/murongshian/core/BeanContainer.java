@@ -3,6 +3,7 @@ package com.murongshian.core;
 import com.murongshian.aop.annotation.Aspect;
 import com.murongshian.core.annotation.Component;
 import com.murongshian.core.annotation.Controller;
+import com.murongshian.core.annotation.ControllerAdvice;
 import com.murongshian.core.annotation.Repository;
 import com.murongshian.core.annotation.Service;
 import com.murongshian.util.ClassUtil;
@@ -28,7 +29,7 @@ public class BeanContainer {
     /**
      * 加载bean的注解列表
      */
-    private static final List<Class<? extends Annotation>> BEAN_ANNOTATION = Arrays.asList(Component.class, Controller.class, Service.class, Repository.class, Aspect.class);
+    private static final List<Class<? extends Annotation>> BEAN_ANNOTATION = Arrays.asList(Component.class, Controller.class, Service.class, Repository.class, Aspect.class, ControllerAdvice.class);
 
     /**
      * 获取Bean容器实例
@@ -0,0 +1,14 @@
+package com.murongshian.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 全局异常处理类, 其中的@ExceptionHandler方法对所有controller生效
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ControllerAdvice {
+}
@@ -1,7 +1,18 @@
 package com.murongshian.mvc;
 
+import com.murongshian.mvc.bind.BindingPlan;
+import com.murongshian.mvc.cache.RouteCache;
+import com.murongshian.mvc.exception.ExceptionResolver;
+import com.murongshian.mvc.executor.Priority;
+import com.murongshian.mvc.flight.SingleFlightGroup;
+import com.murongshian.mvc.interceptor.HandlerInterceptor;
+import com.murongshian.mvc.interceptor.InterceptorRegistry;
+import com.murongshian.mvc.invoker.ControllerInvoker;
+import com.murongshian.mvc.limit.AdaptiveLimiter;
+import com.murongshian.mvc.render.Render;
+
 import java.lang.reflect.Method;
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * ControllerInfo 存储Controller相关信息
@@ -18,9 +29,69 @@ public class ControllerInfo {
     private Method invokeMethod;
 
     /**
-     * 方法参数别名对应参数类型
+     * 方法参数绑定计划
+     */
+    private BindingPlan bindingPlan;
+
+    /**
+     * 绑定了controller实例的方法调用器
+     */
+    private ControllerInvoker invoker;
+
+    /**
+     * 返回值的渲染器, 注册路由时确定
+     */
+    private Render render;
+
+    /**
+     * 对该路由生效的拦截器, 注册路由时确定
+     */
+    private HandlerInterceptor[] interceptors = InterceptorRegistry.EMPTY;
+
+    /**
+     * controller类的异常处理方法查找表
+     */
+    private ExceptionResolver exceptionResolver = ExceptionResolver.EMPTY;
+
+    /**
+     * 返回值是否为CompletionStage
+     */
+    private boolean async;
+
+    /**
+     * 执行controller方法的执行器, 为null时在请求线程中执行
+     */
+    private ExecutorService executor;
+
+    /**
+     * 路由的并发限制器, 为null时不限制
      */
-    private Map<String, Class<?>> methodParameter;
+    private AdaptiveLimiter limiter;
+
+    /**
+     * 请求优先级
+     */
+    private Priority priority = Priority.INTERACTIVE;
+
+    /**
+     * 请求截止时间(毫秒), 不大于0时没有截止时间
+     */
+    private long timeout;
+
+    /**
+     * 请求合并, 为null时不合并
+     */
+    private SingleFlightGroup singleFlight;
+
+    /**
+     * 版本号方法的调用器, 为null时不按版本号比较ETag
+     */
+    private ControllerInvoker versionInvoker;
+
+    /**
+     * 响应缓存, 为null时不缓存
+     */
+    private RouteCache routeCache;
 
     public Class<?> getControllerClass() {
         return controllerClass;
@@ -30,14 +101,110 @@ public class ControllerInfo {
         return invokeMethod;
     }
 
-    public Map<String, Class<?>> getMethodParameter() {
-        return methodParameter;
+    public BindingPlan getBindingPlan() {
+        return bindingPlan;
+    }
+
+    public ControllerInvoker getInvoker() {
+        return invoker;
+    }
+
+    public void setInvoker(ControllerInvoker invoker) {
+        this.invoker = invoker;
+    }
+
+    public Render getRender() {
+        return render;
+    }
+
+    public void setRender(Render render) {
+        this.render = render;
+    }
+
+    public HandlerInterceptor[] getInterceptors() {
+        return interceptors;
+    }
+
+    public void setInterceptors(HandlerInterceptor[] interceptors) {
+        this.interceptors = interceptors;
+    }
+
+    public ExceptionResolver getExceptionResolver() {
+        return exceptionResolver;
+    }
+
+    public void setExceptionResolver(ExceptionResolver exceptionResolver) {
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public AdaptiveLimiter getLimiter() {
+        return limiter;
+    }
+
+    public void setLimiter(AdaptiveLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public SingleFlightGroup getSingleFlight() {
+        return singleFlight;
+    }
+
+    public void setSingleFlight(SingleFlightGroup singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    public ControllerInvoker getVersionInvoker() {
+        return versionInvoker;
+    }
+
+    public void setVersionInvoker(ControllerInvoker versionInvoker) {
+        this.versionInvoker = versionInvoker;
+    }
+
+    public RouteCache getRouteCache() {
+        return routeCache;
+    }
+
+    public void setRouteCache(RouteCache routeCache) {
+        this.routeCache = routeCache;
     }
 
-    public ControllerInfo(Class<?> controllerClass, Method invokeMethod, Map<String, Class<?>> methodParameter) {
+    public ControllerInfo(Class<?> controllerClass, Method invokeMethod, BindingPlan bindingPlan) {
         this.controllerClass = controllerClass;
         this.invokeMethod = invokeMethod;
-        this.methodParameter = methodParameter;
+        this.bindingPlan = bindingPlan;
     }
 
     public ControllerInfo() {
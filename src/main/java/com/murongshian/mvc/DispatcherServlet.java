@@ -1,11 +1,20 @@
 package com.murongshian.mvc;
 
+import com.murongshian.Configuration;
+import com.murongshian.Doodle;
+import com.murongshian.core.BeanContainer;
+import com.murongshian.mvc.annotation.PipelineStage;
+import com.murongshian.mvc.batch.BatchHandler;
+import com.murongshian.mvc.cache.ResponseCache;
+import com.murongshian.mvc.executor.ExecutorRegistry;
+import com.murongshian.mvc.fanout.FanOut;
 import com.murongshian.mvc.handler.*;
 
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -14,19 +23,85 @@ import java.util.List;
 public class DispatcherServlet extends HttpServlet {
 
     /**
-     * 请求执行链
+     * 请求预处理的执行顺序
      */
-    private final List<Handler> HANDLER = new ArrayList<>();
+    public static final int PRE_REQUEST_ORDER = -1000;
+
+    /**
+     * 全局并发限制的执行顺序
+     */
+    public static final int CONCURRENCY_LIMIT_ORDER = -900;
+
+    /**
+     * 请求执行链, 初始化后只读
+     */
+    private Handler[] handlers;
+
+    /**
+     * 批量请求, 未开启时为null
+     */
+    private BatchHandler batchHandler;
+
+    /**
+     * 每个线程复用一个请求处理链, 请求结束后重置
+     */
+    private final ThreadLocal<RequestHandlerChain> handlerChains = new ThreadLocal<RequestHandlerChain>() {
+        @Override
+        protected RequestHandlerChain initialValue() {
+            return new RequestHandlerChain(handlers);
+        }
+    };
 
     /**
      * 初始化Servlet
+     * 处理链依次为: 请求预处理, 全局并发限制, 按order排序的自定义Handler, 批量请求, 请求分发
+     * 批量请求的子请求使用同样的处理链, 但最后直接交给ControllerHandler
      */
     @Override
     public void init() {
-        HANDLER.add(new PreRequestHandler());
-        HANDLER.add(new SimpleUrlHandler(getServletContext()));
-        HANDLER.add(new JspHandler(getServletContext()));
-        HANDLER.add(new ControllerHandler());
+        List<StageHandler> stages = new ArrayList<>();
+        stages.add(new StageHandler(PRE_REQUEST_ORDER, new PreRequestHandler()));
+        Configuration configuration = Doodle.getConfiguration();
+        if (null != configuration.getConcurrencyLimiter()) {
+            stages.add(new StageHandler(CONCURRENCY_LIMIT_ORDER, new ConcurrencyLimitHandler(configuration.getConcurrencyLimiter())));
+        }
+
+        BeanContainer beanContainer = BeanContainer.getInstance();
+        for (Class<?> clz : beanContainer.getClassesBySuper(Handler.class)) {
+            Handler handler = (Handler) beanContainer.getBean(clz);
+            PipelineStage stage = clz.getAnnotation(PipelineStage.class);
+            if (null == stage) {
+                stages.add(new StageHandler(0, handler));
+            } else if (stage.prefixes().length == 0) {
+                stages.add(new StageHandler(stage.order(), handler));
+            } else {
+                stages.add(new StageHandler(stage.order(), new PathPrefixHandler(stage.prefixes(), handler)));
+            }
+        }
+        Collections.sort(stages);
+
+        ControllerHandler controllerHandler = new ControllerHandler();
+        List<Handler> chain = new ArrayList<>(stages.size() + 2);
+        for (StageHandler stage : stages) {
+            chain.add(stage.handler);
+        }
+        if (null != configuration.getBatchPath()) {
+            // 批量请求在整个执行期间占用一个全局并发许可, 子请求不再获取, 否则一个批量请求会占用多个许可
+            List<Handler> batchChain = new ArrayList<>(chain.size() + 1);
+            for (Handler handler : chain) {
+                if (!(handler instanceof ConcurrencyLimitHandler)) {
+                    batchChain.add(handler);
+                }
+            }
+            batchChain.add(controllerHandler);
+            batchHandler = new BatchHandler(configuration.getBatchPath(), batchChain.toArray(new Handler[0]),
+                    configuration.getBatchMaxSize(), configuration.getBatchThreads(),
+                    configuration.getMaxRequestBodySize(), configuration.getAsyncTimeout());
+            chain.add(batchHandler);
+        }
+        chain.add(new DispatchHandler(configuration.getAssetPath(), configuration.getViewPath(),
+                new SimpleUrlHandler(getServletContext()), new JspHandler(getServletContext()), controllerHandler));
+        handlers = chain.toArray(new Handler[0]);
     }
 
     /**
@@ -34,8 +109,67 @@ public class DispatcherServlet extends HttpServlet {
      */
     @Override
     protected void service(HttpServletRequest req, HttpServletResponse resp) {
-        RequestHandlerChain handlerChain = new RequestHandlerChain(HANDLER.iterator(), req, resp);
-        handlerChain.doHandlerChain();
-        handlerChain.doRender();
+        RequestHandlerChain handlerChain = handlerChains.get();
+        // 同一线程中请求被转发回本Servlet时, 外层请求仍在使用线程的处理链, 这时单独创建
+        if (handlerChain.isInUse()) {
+            handlerChain = new RequestHandlerChain(handlers);
+        }
+        handlerChain.reset(req, resp);
+        try {
+            handlerChain.doHandlerChain();
+            if (handlerChain.isAsyncStarted()) {
+                // 异步请求的处理链由完成回调继续使用, 不能再复用, 当前线程之后使用新的处理链
+                handlerChains.remove();
+                return;
+            }
+            handlerChain.doRender();
+        } finally {
+            if (!handlerChain.isAsyncStarted()) {
+                handlerChain.triggerAfterCompletion();
+                handlerChain.releaseLimits();
+                handlerChain.recycle();
+            }
+        }
+    }
+
+    /**
+     * 关闭controller执行器、批量请求执行器、并行调用执行器和优先级调度器
+     */
+    @Override
+    public void destroy() {
+        ExecutorRegistry.getInstance().shutdown();
+        FanOut fanOut = (FanOut) BeanContainer.getInstance().getBean(FanOut.class);
+        if (null != fanOut) {
+            fanOut.shutdown();
+        }
+        ResponseCache responseCache = (ResponseCache) BeanContainer.getInstance().getBean(ResponseCache.class);
+        if (null != responseCache) {
+            responseCache.shutdown();
+        }
+        if (null != batchHandler) {
+            batchHandler.shutdown();
+        }
+        if (null != Doodle.getConfiguration().getPriorityScheduler()) {
+            Doodle.getConfiguration().getPriorityScheduler().shutdown();
+        }
+    }
+
+    /**
+     * 带执行顺序的Handler, 仅在初始化时排序使用
+     */
+    private static class StageHandler implements Comparable<StageHandler> {
+        private final int order;
+
+        private final Handler handler;
+
+        private StageHandler(int order, Handler handler) {
+            this.order = order;
+            this.handler = handler;
+        }
+
+        @Override
+        public int compareTo(StageHandler o) {
+            return Integer.compare(order, o.order);
+        }
     }
-}
\ No newline at end of file
+}
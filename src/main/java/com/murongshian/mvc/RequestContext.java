@@ -0,0 +1,152 @@
+package com.murongshian.mvc;
+
+import com.murongshian.mvc.exception.GatewayTimeoutException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 请求上下文
+ * 执行controller方法时绑定到当前线程, controller和service通过current()获取请求的剩余时间;
+ * 每个RequestHandlerChain持有一个, 随处理链复用
+ */
+public final class RequestContext {
+
+    /**
+     * 超过截止时间时抛出的异常, 不可变且没有异常栈, 所有请求共用
+     */
+    private static final GatewayTimeoutException DEADLINE_EXCEEDED = new GatewayTimeoutException("请求超过截止时间");
+
+    private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 截止时间(System.nanoTime()), 没有截止时间时为0
+     */
+    private volatile long deadlineNanos;
+
+    /**
+     * 当前线程的请求上下文
+     *
+     * @return 不在请求处理中时返回null
+     */
+    public static RequestContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 绑定到当前线程
+     *
+     * @return 之前绑定的上下文, 用于恢复
+     */
+    public static RequestContext bind(RequestContext context) {
+        RequestContext previous = CURRENT.get();
+        CURRENT.set(context);
+        return previous;
+    }
+
+    /**
+     * 恢复之前绑定的上下文
+     */
+    public static void restore(RequestContext previous) {
+        if (null == previous) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * 包装任务, 在其他线程执行时绑定当前线程的请求上下文
+     */
+    public static Runnable wrap(Runnable runnable) {
+        RequestContext context = current();
+        if (null == context) {
+            return runnable;
+        }
+        return () -> {
+            RequestContext previous = bind(context);
+            try {
+                runnable.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * 包装任务, 在其他线程执行时绑定当前线程的请求上下文
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> supplier) {
+        RequestContext context = current();
+        if (null == context) {
+            return supplier;
+        }
+        return () -> {
+            RequestContext previous = bind(context);
+            try {
+                return supplier.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * 设置截止时间
+     *
+     * @param startNanos    请求开始时间(System.nanoTime())
+     * @param timeoutMillis 从请求开始起允许的时间(毫秒)
+     */
+    public void setTimeout(long startNanos, long timeoutMillis) {
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        // 0表示没有截止时间
+        deadlineNanos = 0 == deadline ? 1 : deadline;
+    }
+
+    /**
+     * 清除截止时间
+     */
+    public void reset() {
+        deadlineNanos = 0;
+    }
+
+    public boolean hasDeadline() {
+        return 0 != deadlineNanos;
+    }
+
+    /**
+     * 剩余时间(纳秒)
+     *
+     * @return 没有截止时间时返回Long.MAX_VALUE, 已超过时返回不大于0的值
+     */
+    public long getRemainingNanos() {
+        long deadline = deadlineNanos;
+        return 0 == deadline ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    /**
+     * 剩余时间(毫秒)
+     *
+     * @return 没有截止时间时返回Long.MAX_VALUE, 已超过时返回0
+     */
+    public long getRemainingMillis() {
+        long remaining = getRemainingNanos();
+        return Long.MAX_VALUE == remaining ? remaining : Math.max(0, TimeUnit.NANOSECONDS.toMillis(remaining));
+    }
+
+    /**
+     * 是否已超过截止时间
+     */
+    public boolean isExpired() {
+        return getRemainingNanos() <= 0;
+    }
+
+    /**
+     * 已超过截止时间时抛出GatewayTimeoutException, 用于在耗时操作之间提前结束
+     */
+    public void checkDeadline() {
+        if (isExpired()) {
+            throw DEADLINE_EXCEEDED;
+        }
+    }
+}
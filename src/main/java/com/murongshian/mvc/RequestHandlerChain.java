@@ -1,22 +1,40 @@
 package com.murongshian.mvc;
 
+import com.murongshian.mvc.annotation.RequestMethod;
+import com.murongshian.mvc.exception.HttpStatusException;
+import com.murongshian.mvc.exception.ServiceUnavailableException;
 import com.murongshian.mvc.handler.Handler;
+import com.murongshian.mvc.interceptor.HandlerInterceptor;
+import com.murongshian.mvc.interceptor.InterceptorRegistry;
+import com.murongshian.mvc.limit.AdaptiveLimiter;
 import com.murongshian.mvc.render.DefaultRender;
+import com.murongshian.mvc.render.HttpStatusRender;
 import com.murongshian.mvc.render.InternalErrorRender;
 import com.murongshian.mvc.render.Render;
+import com.murongshian.mvc.route.RouteMatch;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * http请求处理链
  */
 public class RequestHandlerChain {
     /**
-     * Handler迭代器
+     * 并发超限时抛出的异常, 不可变且没有异常栈, 所有请求共用
      */
-    private Iterator<Handler> handlerIt;
+    private static final ServiceUnavailableException LIMIT_EXCEEDED = new ServiceUnavailableException("并发请求过多", 1);
+
+    /**
+     * Handler执行链
+     */
+    private Handler[] handlers;
 
     /**
      * 请求request
@@ -33,6 +51,11 @@ public class RequestHandlerChain {
      */
     private String requestMethod;
 
+    /**
+     * 请求http方法, 不支持的方法为null
+     */
+    private RequestMethod httpMethod;
+
     /**
      * 请求http路径
      */
@@ -48,13 +71,128 @@ public class RequestHandlerChain {
      */
     private Render render;
 
-    public RequestHandlerChain(Iterator<Handler> handlerIt, HttpServletRequest request, HttpServletResponse response) {
-        this.handlerIt = handlerIt;
+    /**
+     * controller方法返回值
+     */
+    private Object result;
+
+    /**
+     * 路由匹配结果
+     */
+    private final RouteMatch routeMatch = new RouteMatch();
+
+    /**
+     * 匹配到的路由的拦截器
+     */
+    private HandlerInterceptor[] interceptors = InterceptorRegistry.EMPTY;
+
+    /**
+     * 最后一个preHandle返回true的拦截器下标
+     */
+    private int interceptorIndex = -1;
+
+    /**
+     * 处理过程中抛出的异常
+     */
+    private Exception exception;
+
+    /**
+     * 异步上下文, 未开始异步处理时为null
+     */
+    private AsyncContext asyncContext;
+
+    /**
+     * 异步请求是否已结束
+     */
+    private final AtomicBoolean asyncCompleted = new AtomicBoolean();
+
+    /**
+     * 异步任务, 超时时取消
+     */
+    private final AtomicReference<Future<?>> asyncTask = new AtomicReference<>();
+
+    /**
+     * 截止时间到达时结束异步请求的定时任务
+     */
+    private volatile ScheduledFuture<?> deadlineTask;
+
+    /**
+     * 请求上下文
+     */
+    private final RequestContext requestContext = new RequestContext();
+
+    /**
+     * 已获取许可的并发限制器
+     */
+    private AdaptiveLimiter[] limiters = new AdaptiveLimiter[2];
+
+    private int limiterCount;
+
+    /**
+     * 请求开始时间(纳秒)
+     */
+    private long startNanos;
+
+    /**
+     * 是否正在处理请求
+     */
+    private boolean inUse;
+
+    public RequestHandlerChain(Handler[] handlers) {
+        this.handlers = handlers;
+    }
+
+    public RequestHandlerChain(Handler[] handlers, HttpServletRequest request, HttpServletResponse response) {
+        this(handlers);
+        reset(request, response);
+    }
+
+    /**
+     * 开始处理新的请求, 重置上一次请求留下的状态
+     */
+    public void reset(HttpServletRequest request, HttpServletResponse response) {
         this.request = request;
         this.response = response;
         this.requestMethod = request.getMethod();
+        this.httpMethod = RequestMethod.resolve(requestMethod);
         this.requestPath = request.getPathInfo();
         this.responseStatus = HttpServletResponse.SC_OK;
+        this.render = null;
+        this.result = null;
+        this.routeMatch.reset();
+        this.interceptors = InterceptorRegistry.EMPTY;
+        this.interceptorIndex = -1;
+        this.exception = null;
+        this.asyncContext = null;
+        this.asyncCompleted.set(false);
+        this.asyncTask.set(null);
+        this.startNanos = System.nanoTime();
+        this.requestContext.reset();
+        this.deadlineTask = null;
+        this.inUse = true;
+    }
+
+    /**
+     * 请求处理完毕, 释放对request、response和返回值的引用以便复用
+     */
+    public void recycle() {
+        this.request = null;
+        this.response = null;
+        this.requestMethod = null;
+        this.httpMethod = null;
+        this.requestPath = null;
+        this.render = null;
+        this.result = null;
+        this.routeMatch.reset();
+        this.interceptors = InterceptorRegistry.EMPTY;
+        this.interceptorIndex = -1;
+        this.exception = null;
+        this.asyncContext = null;
+        this.asyncCompleted.set(false);
+        this.asyncTask.set(null);
+        this.requestContext.reset();
+        this.deadlineTask = null;
+        this.inUse = false;
     }
 
     /**
@@ -62,14 +200,123 @@ public class RequestHandlerChain {
      */
     public void doHandlerChain() {
         try {
-            while (handlerIt.hasNext()) {
-                if (!handlerIt.next().handle(this)) {
+            for (Handler handler : handlers) {
+                if (!handler.handle(this)) {
                     break;
                 }
             }
         } catch (Exception e) {
+            handleException(e);
+        }
+    }
+
+    /**
+     * 处理没有被@ExceptionHandler处理的异常
+     * HttpStatusException以其状态码响应, 其他异常响应500
+     */
+    public void handleException(Exception e) {
+        exception = e;
+        if (e instanceof HttpStatusException) {
+            // 可预期的请求错误, 不打印日志
+            responseStatus = ((HttpStatusException) e).getStatus();
+            render = HttpStatusRender.INSTANCE;
+        } else {
             System.err.println("doHandlerChain error" + e);
-            render = new InternalErrorRender();
+            render = InternalErrorRender.INSTANCE;
+        }
+    }
+
+    /**
+     * 获取并发限制器的许可, 请求结束时由releaseLimits()归还
+     *
+     * @throws ServiceUnavailableException 并发数已达上限
+     */
+    public void acquireLimit(AdaptiveLimiter limiter) {
+        if (!limiter.tryAcquire()) {
+            throw LIMIT_EXCEEDED;
+        }
+        if (limiterCount == limiters.length) {
+            limiters = Arrays.copyOf(limiters, limiterCount << 1);
+        }
+        limiters[limiterCount++] = limiter;
+    }
+
+    /**
+     * 归还请求获取的所有许可, 以请求耗时和是否出现非预期异常调整上限
+     */
+    public void releaseLimits() {
+        if (0 == limiterCount) {
+            return;
+        }
+        long rttNanos = System.nanoTime() - startNanos;
+        boolean failed = null != exception && !(exception instanceof HttpStatusException);
+        for (int i = limiterCount - 1; i >= 0; i--) {
+            limiters[i].release(rttNanos, failed);
+            limiters[i] = null;
+        }
+        limiterCount = 0;
+    }
+
+    /**
+     * 开始异步处理, 当前线程返回后请求保持打开, 之后由completeAsync()结束
+     *
+     * @param timeout 超时时间(毫秒), 不大于0时不超时
+     * @return 异步上下文
+     */
+    public AsyncContext startAsync(long timeout) {
+        asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(timeout);
+        return asyncContext;
+    }
+
+    /**
+     * 抢占异步请求的完成权, 异步结果与超时同时到达时只有一方能成功
+     *
+     * @return 是否抢占成功
+     */
+    public boolean tryCompleteAsync() {
+        return asyncCompleted.compareAndSet(false, true);
+    }
+
+    /**
+     * 设置异步任务
+     * 执行器任务与其返回的CompletionStage可能在不同线程中设置, 后者优先
+     *
+     * @param task     任务
+     * @param override 是否覆盖已有的任务
+     */
+    public void setAsyncTask(Future<?> task, boolean override) {
+        if (override) {
+            asyncTask.set(task);
+        } else {
+            asyncTask.compareAndSet(null, task);
+        }
+    }
+
+    /**
+     * 结束异步请求: 渲染结果, 执行拦截器的afterCompletion, 关闭异步上下文
+     */
+    public void completeAsync() {
+        try {
+            doRender();
+        } catch (RuntimeException e) {
+            // doRender中已记录; 响应还未提交时改为按异常渲染, 不以200结束
+            if (!response.isCommitted()) {
+                response.reset();
+                handleException(exception);
+                try {
+                    render.render(this);
+                } catch (Exception ignored) {
+                    // 已记录原始异常
+                }
+            }
+        } finally {
+            if (null != deadlineTask) {
+                deadlineTask.cancel(false);
+            }
+            triggerAfterCompletion();
+            releaseLimits();
+            asyncContext.complete();
         }
     }
 
@@ -78,18 +325,59 @@ public class RequestHandlerChain {
      */
     public void doRender() {
         if (null == render) {
-            render = new DefaultRender();
+            render = DefaultRender.INSTANCE;
         }
         try {
             render.render(this);
         } catch (Exception e) {
             System.err.println("doRender" + e);
+            exception = e;
             throw new RuntimeException(e);
         }
     }
 
-    public Iterator<Handler> getHandlerIt() {
-        return handlerIt;
+    /**
+     * 依次执行拦截器的preHandle
+     *
+     * @return 有拦截器返回false时为false, 这时已经对之前的拦截器执行了afterCompletion
+     */
+    public boolean applyPreHandle(HandlerInterceptor[] interceptors) throws Exception {
+        this.interceptors = interceptors;
+        for (int i = 0; i < interceptors.length; i++) {
+            if (!interceptors[i].preHandle(this)) {
+                triggerAfterCompletion();
+                return false;
+            }
+            interceptorIndex = i;
+        }
+        return true;
+    }
+
+    /**
+     * 逆序执行拦截器的postHandle
+     */
+    public void applyPostHandle() throws Exception {
+        for (int i = interceptors.length - 1; i >= 0; i--) {
+            interceptors[i].postHandle(this);
+        }
+    }
+
+    /**
+     * 逆序执行preHandle返回true的拦截器的afterCompletion, 拦截器抛出的异常只记录不向外抛出
+     */
+    public void triggerAfterCompletion() {
+        for (int i = interceptorIndex; i >= 0; i--) {
+            try {
+                interceptors[i].afterCompletion(this, exception);
+            } catch (Exception e) {
+                System.err.println("afterCompletion error" + e);
+            }
+        }
+        interceptorIndex = -1;
+    }
+
+    public Handler[] getHandlers() {
+        return handlers;
     }
 
     public HttpServletRequest getRequest() {
@@ -104,6 +392,10 @@ public class RequestHandlerChain {
         return requestMethod;
     }
 
+    public RequestMethod getHttpMethod() {
+        return httpMethod;
+    }
+
     public String getRequestPath() {
         return requestPath;
     }
@@ -116,10 +408,54 @@ public class RequestHandlerChain {
         return render;
     }
 
+    public Exception getException() {
+        return exception;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public RequestContext getRequestContext() {
+        return requestContext;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public Future<?> getAsyncTask() {
+        return asyncTask.get();
+    }
+
+    public boolean isAsyncStarted() {
+        return null != asyncContext;
+    }
+
+    public boolean isInUse() {
+        return inUse;
+    }
+
+    public RouteMatch getRouteMatch() {
+        return routeMatch;
+    }
+
     public void setRender(Render render) {
         this.render = render;
     }
 
+    public void setDeadlineTask(ScheduledFuture<?> deadlineTask) {
+        this.deadlineTask = deadlineTask;
+    }
+
+    public void setResponseStatus(int responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    public void setResult(Object result) {
+        this.result = result;
+    }
+
     public void setRequestPath(String requestPath) {
         this.requestPath = requestPath;
     }
@@ -0,0 +1,115 @@
+package com.murongshian.mvc;
+
+import com.murongshian.mvc.bind.CookieValueResolver;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * 按请求内容计算key, 用于请求合并和响应缓存
+ * key由请求路径、按名称排序的请求参数、请求头和cookie组成, 每个名称和值都写成"长度:内容", 不同的请求不会得到相同的key;
+ * 请求参数、请求头、cookie和响应格式分别以p、h、c、f开头, 不存在的请求头和cookie写成-, 与任何值都不同
+ */
+public final class RequestKeys {
+
+    private static final String[] NO_NAMES = new String[0];
+
+    private static final String COOKIE_HEADER = "Cookie";
+
+    private RequestKeys() {
+    }
+
+    /**
+     * 计算key
+     *
+     * @param handlerChain 请求处理链
+     * @param headerNames  参与计算的请求头
+     * @param cookieNames  参与计算的cookie
+     * @return key
+     */
+    public static String of(RequestHandlerChain handlerChain, String[] headerNames, String[] cookieNames) {
+        HttpServletRequest request = handlerChain.getRequest();
+        String cookieHeader = 0 == cookieNames.length ? null : request.getHeader(COOKIE_HEADER);
+        return of(handlerChain.getRequestPath(), request.getParameterMap(), headerNames, request::getHeader,
+                cookieNames, name -> CookieValueResolver.findCookie(cookieHeader, name));
+    }
+
+    /**
+     * 计算key
+     *
+     * @param path        请求路径
+     * @param params      请求参数
+     * @param headerNames 参与计算的请求头
+     * @param headers     按名称获取请求头, 不存在时返回null
+     * @param cookieNames 参与计算的cookie
+     * @param cookies     按名称获取cookie, 不存在时返回null
+     * @return key
+     */
+    public static String of(String path, Map<String, String[]> params, String[] headerNames, UnaryOperator<String> headers,
+                            String[] cookieNames, UnaryOperator<String> cookies) {
+        StringBuilder key = new StringBuilder(path.length() + 32);
+        appendPart(key, path);
+        if (!params.isEmpty()) {
+            String[] names = params.keySet().toArray(NO_NAMES);
+            Arrays.sort(names);
+            for (String name : names) {
+                String[] values = params.get(name);
+                key.append('p');
+                appendPart(key, name);
+                key.append(values.length).append(':');
+                for (String value : values) {
+                    appendPart(key, value);
+                }
+            }
+        }
+        for (String name : headerNames) {
+            key.append('h');
+            appendPart(key, name);
+            appendPart(key, headers.apply(name));
+        }
+        for (String name : cookieNames) {
+            key.append('c');
+            appendPart(key, name);
+            appendPart(key, cookies.apply(name));
+        }
+        return key.toString();
+    }
+
+    /**
+     * 在key后附加协商的响应格式
+     *
+     * @param key    key
+     * @param format 响应格式
+     * @return key
+     */
+    public static String withFormat(String key, String format) {
+        StringBuilder withFormat = new StringBuilder(key.length() + format.length() + 8).append(key).append('f');
+        appendPart(withFormat, format);
+        return withFormat.toString();
+    }
+
+    /**
+     * key是否属于请求路径, 不论请求参数、请求头和cookie
+     *
+     * @param key  key
+     * @param path 请求路径
+     * @return 是否属于
+     */
+    public static boolean matchesPath(String key, String path) {
+        // 路径写成"长度:内容", 前缀相同即路径相同
+        return key.startsWith(path.length() + ":" + path);
+    }
+
+    /**
+     * 写入"长度:内容", null写成-
+     */
+    private static void appendPart(StringBuilder key, String part) {
+        if (null == part) {
+            key.append('-');
+        } else {
+            key.append(part.length()).append(':').append(part);
+        }
+    }
+}
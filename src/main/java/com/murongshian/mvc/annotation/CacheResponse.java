@@ -0,0 +1,33 @@
+package com.murongshian.mvc.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 缓存GET请求的响应
+ * 请求路径、请求参数、varyOn中的请求头和参数绑定的请求头、cookie都相同的请求共用一份序列化好的响应, 命中时不执行controller方法也不序列化;
+ * 未命中的并发请求只执行一次controller方法. 只能用于@ResponseBody的GET方法, 不能与@SingleFlight同时使用;
+ * 结果与用户身份有关时需要把相关请求头加入varyOn
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheResponse {
+
+    /**
+     * 缓存有效时间(毫秒)
+     */
+    long ttl();
+
+    /**
+     * 过期后仍可使用的时间(毫秒), 这段时间内命中时先返回过期的响应, 同时在后台线程中重新执行controller方法刷新缓存;
+     * 后台执行时使用触发刷新的请求绑定的参数
+     */
+    long staleWhileRevalidate() default 0;
+
+    /**
+     * 参与缓存key的请求头
+     */
+    String[] varyOn() default {};
+}
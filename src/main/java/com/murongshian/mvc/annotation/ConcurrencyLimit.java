@@ -0,0 +1,35 @@
+package com.murongshian.mvc.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 路由的自适应并发限制, 超过上限的请求直接响应503
+ * 写在controller类上时类中每个路由各自限制, 方法上的优先
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimit {
+
+    /**
+     * 初始并发上限
+     */
+    int initial() default 20;
+
+    /**
+     * 最小并发上限
+     */
+    int min() default 1;
+
+    /**
+     * 最大并发上限
+     */
+    int max() default 200;
+
+    /**
+     * 耗时阈值(毫秒), 超过时减小上限
+     */
+    long latencyThreshold() default 1000;
+}
@@ -0,0 +1,19 @@
+package com.murongshian.mvc.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 从cookie获取方法参数
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CookieValue {
+
+    /**
+     * cookie名
+     */
+    String value() default "";
+}
@@ -0,0 +1,22 @@
+package com.murongshian.mvc.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 由controller提供响应的版本号
+ * value为同一controller中的版本号方法名, 该方法的参数类型与本方法相同, 绑定的参数值也相同, 返回值为版本号;
+ * 调用本方法前先调用版本号方法, 版本号生成的ETag与If-None-Match匹配时直接响应304, 不调用本方法也不序列化;
+ * 版本号方法返回null时按普通请求处理. 只能用于GET方法, 版本号需要随响应内容变化
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ETagVersion {
+
+    /**
+     * 版本号方法名
+     */
+    String value();
+}
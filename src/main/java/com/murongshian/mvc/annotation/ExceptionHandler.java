@@ -0,0 +1,26 @@
+package com.murongshian.mvc.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 异常处理方法
+ * 写在controller中只处理该controller抛出的异常, 写在@ControllerAdvice类中对所有controller生效, controller中的优先
+ * 方法参数可以是异常、RequestHandlerChain、HttpServletRequest和HttpServletResponse, 返回值的处理与controller方法相同
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExceptionHandler {
+
+    /**
+     * 处理的异常类型, 为空时使用方法参数中的异常类型
+     */
+    Class<? extends Throwable>[] value() default {};
+
+    /**
+     * 响应状态码, 为0时HttpStatusException使用异常的状态码, 其他异常为500
+     */
+    int status() default 0;
+}
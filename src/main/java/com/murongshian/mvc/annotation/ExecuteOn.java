@@ -0,0 +1,37 @@
+package com.murongshian.mvc.annotation;
+
+import com.murongshian.mvc.executor.ExecutorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * controller方法在独立的执行器中执行, 不占用tomcat的请求线程
+ * 写在controller类上对类中所有方法生效, 方法上的优先; name相同的共用一个执行器
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExecuteOn {
+
+    /**
+     * 执行器类型
+     */
+    ExecutorType value() default ExecutorType.BOUNDED;
+
+    /**
+     * 执行器名称, 为空时使用controller类名
+     */
+    String name() default "";
+
+    /**
+     * 线程数, 为0时BOUNDED为cpu核数*2, FORK_JOIN为cpu核数; VIRTUAL不使用
+     */
+    int threads() default 0;
+
+    /**
+     * BOUNDED的等待队列长度, 队列满时响应503
+     */
+    int queueSize() default 1000;
+}
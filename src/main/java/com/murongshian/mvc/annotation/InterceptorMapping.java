@@ -0,0 +1,31 @@
+package com.murongshian.mvc.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 拦截器生效的路由和执行顺序
+ * 容器中实现了HandlerInterceptor的Bean会在启动时按路由路径匹配, 没有该注解时order为0且对所有路由生效
+ * 路径写法与路由相同, 支持{name}、*和**
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface InterceptorMapping {
+
+    /**
+     * 生效的路由路径
+     */
+    String[] value() default {"/**"};
+
+    /**
+     * 排除的路由路径
+     */
+    String[] exclude() default {};
+
+    /**
+     * 执行顺序, 值越小preHandle越先执行, postHandle和afterCompletion逆序执行
+     */
+    int order() default 0;
+}
@@ -0,0 +1,19 @@
+package com.murongshian.mvc.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 从路径变量获取方法参数
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PathVariable {
+
+    /**
+     * 路径变量名, 对应RequestMapping中的{name}
+     */
+    String value() default "";
+}
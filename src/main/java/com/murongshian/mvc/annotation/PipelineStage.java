@@ -0,0 +1,25 @@
+package com.murongshian.mvc.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 自定义Handler在请求处理链中的位置
+ * 容器中实现了Handler的Bean会在DispatcherServlet初始化时加入处理链, 没有该注解时order为0且对所有路径生效
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PipelineStage {
+
+    /**
+     * 执行顺序, 值越小越先执行; 内置的请求预处理为-1000
+     */
+    int order() default 0;
+
+    /**
+     * 生效的路径前缀, 为空时对所有路径生效
+     */
+    String[] prefixes() default {};
+}
@@ -5,5 +5,35 @@ package com.murongshian.mvc.annotation;
  */
 public enum RequestMethod {
 
-    GET, POST
-}
\ No newline at end of file
+    GET, POST, PUT, DELETE, PATCH, HEAD, OPTIONS;
+
+    /**
+     * 根据http请求方法名获取RequestMethod
+     *
+     * @param method http请求方法名
+     * @return RequestMethod, 不支持的方法返回null
+     */
+    public static RequestMethod resolve(String method) {
+        if (null == method) {
+            return null;
+        }
+        switch (method) {
+            case "GET":
+                return GET;
+            case "POST":
+                return POST;
+            case "PUT":
+                return PUT;
+            case "DELETE":
+                return DELETE;
+            case "PATCH":
+                return PATCH;
+            case "HEAD":
+                return HEAD;
+            case "OPTIONS":
+                return OPTIONS;
+            default:
+                return null;
+        }
+    }
+}
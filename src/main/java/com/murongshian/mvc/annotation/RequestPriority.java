@@ -0,0 +1,22 @@
+package com.murongshian.mvc.annotation;
+
+import com.murongshian.mvc.executor.Priority;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 路由的请求优先级, 配置了PriorityScheduler时生效
+ * 写在controller类上对类中所有方法生效, 方法上的优先; 没有该注解时为INTERACTIVE
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestPriority {
+
+    /**
+     * 优先级
+     */
+    Priority value();
+}
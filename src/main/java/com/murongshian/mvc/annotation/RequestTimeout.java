@@ -0,0 +1,20 @@
+package com.murongshian.mvc.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 路由的请求截止时间
+ * 写在controller类上对类中所有方法生效, 方法上的优先; 请求头X-Request-Timeout更短时以请求头为准
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestTimeout {
+
+    /**
+     * 从开始处理请求起允许的时间(毫秒)
+     */
+    long value();
+}
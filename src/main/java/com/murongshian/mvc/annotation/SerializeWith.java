@@ -0,0 +1,22 @@
+package com.murongshian.mvc.annotation;
+
+import com.murongshian.mvc.serializer.MessageSerializer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 指定@ResponseBody返回值的序列化实现
+ * 写在controller类上对类中所有方法生效, 方法上的优先; 没有时使用Configuration.messageSerializer
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SerializeWith {
+
+    /**
+     * 序列化实现, 同一个类只创建一个实例
+     */
+    Class<? extends MessageSerializer> value();
+}
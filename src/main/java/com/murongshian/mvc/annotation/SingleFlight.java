@@ -0,0 +1,21 @@
+package com.murongshian.mvc.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 合并相同的并发GET请求
+ * 请求路径、请求参数、varyOn中的请求头和参数绑定的请求头、cookie都相同的并发请求只执行一次controller方法, 所有请求共用同一份序列化结果;
+ * 只能用于@ResponseBody的GET方法, 结果与用户身份有关时需要把相关请求头加入varyOn
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+
+    /**
+     * 参与合并key的请求头
+     */
+    String[] varyOn() default {};
+}
@@ -0,0 +1,139 @@
+package com.murongshian.mvc.batch;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 子请求的异步上下文
+ * 子请求在进程内执行, 异步处理不经过容器: complete()时结束子请求, 超时由批量请求统一触发;
+ * start()的任务在批量请求的执行器中执行; 不支持dispatch, 调用时子请求按501结束
+ */
+class BatchAsyncContext implements AsyncContext {
+
+    private final BatchRequest request;
+
+    private final BatchResponse response;
+
+    private final List<AsyncListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 子请求执行器
+     */
+    private final ExecutorService executor;
+
+    private long timeout;
+
+    BatchAsyncContext(BatchRequest request, BatchResponse response, ExecutorService executor) {
+        this.request = request;
+        this.response = response;
+        this.executor = executor;
+    }
+
+    /**
+     * 批量请求超时时通知子请求
+     */
+    void fireTimeout() {
+        AsyncEvent event = new AsyncEvent(this, request, response);
+        for (AsyncListener listener : listeners) {
+            try {
+                listener.onTimeout(event);
+            } catch (IOException e) {
+                System.err.println("batch onTimeout error" + e);
+            }
+        }
+    }
+
+    @Override
+    public ServletRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public ServletResponse getResponse() {
+        return response;
+    }
+
+    @Override
+    public boolean hasOriginalRequestAndResponse() {
+        return true;
+    }
+
+    /**
+     * 子请求没有经过容器, 不能转发; 子请求按501结束
+     */
+    @Override
+    public void dispatch() {
+        rejectDispatch();
+    }
+
+    @Override
+    public void dispatch(String path) {
+        rejectDispatch();
+    }
+
+    @Override
+    public void dispatch(ServletContext context, String path) {
+        rejectDispatch();
+    }
+
+    @Override
+    public void complete() {
+        response.complete();
+    }
+
+    @Override
+    public void start(Runnable run) {
+        // 与子请求共用有界的执行器, 已满时子请求按503结束
+        try {
+            executor.execute(run);
+        } catch (RejectedExecutionException e) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "批量执行器已满");
+            response.complete();
+        }
+    }
+
+    private void rejectDispatch() {
+        response.sendError(HttpServletResponse.SC_NOT_IMPLEMENTED, "子请求不支持AsyncContext.dispatch");
+        response.complete();
+    }
+
+    @Override
+    public void addListener(AsyncListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void addListener(AsyncListener listener, ServletRequest servletRequest, ServletResponse servletResponse) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public <T extends AsyncListener> T createListener(Class<T> clazz) throws ServletException {
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ServletException(e);
+        }
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
+}
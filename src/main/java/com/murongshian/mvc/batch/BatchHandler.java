@@ -0,0 +1,295 @@
+package com.murongshian.mvc.batch;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.annotation.RequestMethod;
+import com.murongshian.mvc.bind.RequestBodyResolver;
+import com.murongshian.mvc.exception.BadRequestException;
+import com.murongshian.mvc.exception.HttpStatusException;
+import com.murongshian.mvc.executor.ExecutorType;
+import com.murongshian.mvc.handler.Handler;
+import com.murongshian.mvc.render.JsonBytesRender;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 批量请求
+ * 请求体为json数组, 每项为一个子请求{method, path, params, body}, 子请求在批量执行器中并行执行
+ * 子请求经过与普通请求相同的处理链和路由, 全部结束后按顺序合并为一个json数组: [{status, headers, body}]
+ * 子请求只支持controller, 不支持静态资源、jsp和视图渲染, 也不能再嵌套批量请求
+ */
+public class BatchHandler implements Handler {
+
+    /**
+     * 请求体类型
+     */
+    private static final Type ITEMS_TYPE = new TypeReference<List<BatchItem>>() {
+    }.getType();
+
+    /**
+     * 子请求排队时批量请求已超时
+     */
+    private static final byte[] TIMEOUT_BODY = "\"批量请求超时\"".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 批量请求路径
+     */
+    private final String batchPath;
+
+    /**
+     * 子请求的处理链
+     */
+    private final Handler[] handlers;
+
+    /**
+     * 单个批量请求最多包含的子请求数
+     */
+    private final int maxSize;
+
+    /**
+     * 请求体最大长度
+     */
+    private final long maxBodySize;
+
+    /**
+     * 批量请求超时时间(毫秒)
+     */
+    private final long timeout;
+
+    /**
+     * 子请求执行器
+     */
+    private final ExecutorService executor;
+
+    public BatchHandler(String batchPath, Handler[] handlers, int maxSize, int threads, long maxBodySize, long timeout) {
+        this.batchPath = batchPath;
+        this.handlers = handlers;
+        this.maxSize = maxSize;
+        this.maxBodySize = maxBodySize;
+        this.timeout = timeout;
+        this.executor = ExecutorType.BOUNDED.create("batch", threads, maxSize * 50);
+    }
+
+    @Override
+    public boolean handle(final RequestHandlerChain handlerChain) throws Exception {
+        if (!batchPath.equals(handlerChain.getRequestPath())) {
+            return true;
+        }
+        if (RequestMethod.POST != handlerChain.getHttpMethod()) {
+            handlerChain.getResponse().setHeader("Allow", "POST");
+            throw new HttpStatusException(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "批量请求只支持POST");
+        }
+        List<BatchItem> items = readItems(handlerChain.getRequest());
+        if (null == items || items.isEmpty()) {
+            throw new BadRequestException("批量请求为空");
+        }
+        if (items.size() > maxSize) {
+            throw new BadRequestException("批量请求数量超过上限: " + maxSize);
+        }
+        BatchResponse[] responses = new BatchResponse[items.size()];
+        BatchRequest[] requests = new BatchRequest[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            requests[i] = createRequest(handlerChain.getRequest(), items.get(i), executor);
+            responses[i] = new BatchResponse(handlerChain.getResponse());
+        }
+
+        AsyncContext asyncContext = handlerChain.startAsync(timeout);
+        // 请求线程写入, 容器的超时线程读取
+        AtomicReferenceArray<Future<?>> tasks = new AtomicReferenceArray<>(items.size());
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                // 通知已开始异步处理的子请求超时, 未结束的子请求按超时返回
+                for (int i = 0; i < requests.length; i++) {
+                    if (!responses[i].getFuture().isDone()) {
+                        Future<?> task = tasks.get(i);
+                        if (null != task) {
+                            task.cancel(true);
+                        }
+                        if (requests[i].isAsyncStarted()) {
+                            requests[i].getBatchAsyncContext().fireTimeout();
+                        }
+                    }
+                }
+                complete(handlerChain, responses);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                complete(handlerChain, responses);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+
+        for (int i = 0; i < requests.length; i++) {
+            BatchRequest request = requests[i];
+            BatchResponse response = responses[i];
+            try {
+                tasks.set(i, executor.submit(() -> execute(request, response)));
+            } catch (RejectedExecutionException e) {
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "批量执行器已满");
+                response.complete();
+            }
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[responses.length];
+        for (int i = 0; i < responses.length; i++) {
+            futures[i] = responses[i].getFuture();
+        }
+        CompletableFuture.allOf(futures).whenComplete((v, ex) -> complete(handlerChain, responses));
+        return false;
+    }
+
+    /**
+     * 关闭子请求执行器
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 与DispatcherServlet相同的方式执行子请求, 子请求开始异步处理时由其完成回调结束
+     */
+    private void execute(BatchRequest request, BatchResponse response) {
+        RequestHandlerChain handlerChain = new RequestHandlerChain(handlers, request, response);
+        try {
+            handlerChain.doHandlerChain();
+            if (handlerChain.isAsyncStarted()) {
+                return;
+            }
+            handlerChain.doRender();
+        } finally {
+            if (!handlerChain.isAsyncStarted()) {
+                handlerChain.triggerAfterCompletion();
+                handlerChain.releaseLimits();
+                response.complete();
+            }
+        }
+    }
+
+    /**
+     * 合并子请求的结果, 结束批量请求
+     */
+    private void complete(RequestHandlerChain handlerChain, BatchResponse[] responses) {
+        if (!handlerChain.tryCompleteAsync()) {
+            return;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 * responses.length);
+        out.write('[');
+        for (int i = 0; i < responses.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            BatchResponse response = responses[i].getFuture().getNow(null);
+            if (null == response) {
+                writeItem(out, HttpServletResponse.SC_GATEWAY_TIMEOUT, null, TIMEOUT_BODY);
+            } else {
+                writeItem(out, response.getStatus(), response.getHeaders(), encodeBody(response));
+            }
+        }
+        out.write(']');
+        handlerChain.setResult(out.toByteArray());
+        handlerChain.setRender(JsonBytesRender.INSTANCE);
+        handlerChain.completeAsync();
+    }
+
+    /**
+     * 写入一个子请求的结果
+     */
+    private static void writeItem(ByteArrayOutputStream out, int status, Map<String, List<String>> headers, byte[] body) {
+        write(out, "{\"status\":" + status + ",\"headers\":");
+        if (null == headers || headers.isEmpty()) {
+            write(out, "{}");
+        } else {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+                List<String> value = entry.getValue();
+                values.put(entry.getKey(), value.size() == 1 ? value.get(0) : value);
+            }
+            write(out, JSON.toJSONString(values));
+        }
+        write(out, ",\"body\":");
+        out.write(body, 0, body.length);
+        out.write('}');
+    }
+
+    /**
+     * json响应体原样嵌入, 其他响应体作为字符串, 没有响应体时为null
+     */
+    private static byte[] encodeBody(BatchResponse response) {
+        byte[] body = response.getBody();
+        if (0 == body.length) {
+            return "null".getBytes(StandardCharsets.UTF_8);
+        }
+        String contentType = response.getContentType();
+        if (null != contentType && contentType.contains("json")) {
+            return body;
+        }
+        return JSON.toJSONBytes(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private static void write(ByteArrayOutputStream out, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 读取请求体中的子请求
+     */
+    private List<BatchItem> readItems(HttpServletRequest request) throws Exception {
+        return RequestBodyResolver.read(request, ITEMS_TYPE, maxBodySize);
+    }
+
+    /**
+     * 创建子请求
+     */
+    private static BatchRequest createRequest(HttpServletRequest request, BatchItem item, ExecutorService executor) {
+        if (null == item || null == item.path || !item.path.startsWith("/")) {
+            throw new BadRequestException("子请求路径错误: " + (null == item ? null : item.path));
+        }
+        String method = null == item.method ? "GET" : item.method.toUpperCase(Locale.ROOT);
+        Map<String, String[]> params = new LinkedHashMap<>();
+        if (null != item.params) {
+            for (Map.Entry<String, Object> entry : item.params.entrySet()) {
+                Object value = entry.getValue();
+                if (value instanceof Collection) {
+                    Collection<?> values = (Collection<?>) value;
+                    String[] array = new String[values.size()];
+                    int i = 0;
+                    for (Object v : values) {
+                        array[i++] = String.valueOf(v);
+                    }
+                    params.put(entry.getKey(), array);
+                } else if (null != value) {
+                    params.put(entry.getKey(), new String[]{String.valueOf(value)});
+                }
+            }
+        }
+        byte[] body = null == item.body ? null : JSON.toJSONBytes(item.body);
+        return new BatchRequest(request, method, item.path, params, body, executor);
+    }
+}
@@ -0,0 +1,28 @@
+package com.murongshian.mvc.batch;
+
+import java.util.Map;
+
+/**
+ * 批量请求中的一个子请求
+ */
+public class BatchItem {
+    /**
+     * http方法, 为空时为GET
+     */
+    public String method;
+
+    /**
+     * 请求路径
+     */
+    public String path;
+
+    /**
+     * 请求参数, 值为字符串或字符串数组
+     */
+    public Map<String, Object> params;
+
+    /**
+     * json请求体, 用于@RequestBody参数
+     */
+    public Object body;
+}
@@ -0,0 +1,246 @@
+package com.murongshian.mvc.batch;
+
+import com.murongshian.mvc.render.ETags;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 子请求
+ * 请求头沿用批量请求的, 方法、路径、参数、请求体和request属性是子请求自己的;
+ * 子请求的响应体嵌入批量响应的json中, 所以不沿用Accept、Accept-Encoding和If-None-Match, 总是返回未压缩的完整json;
+ * 请求体在内存中, 设置ReadListener时立即通知读取
+ */
+class BatchRequest extends HttpServletRequestWrapper {
+
+    /**
+     * 不沿用的请求头
+     */
+    private static final String[] HIDDEN_HEADERS = {"Accept", "Accept-Encoding", ETags.IF_NONE_MATCH};
+
+    private final String method;
+
+    private final String path;
+
+    private final Map<String, String[]> params;
+
+    private final byte[] body;
+
+    /**
+     * 子请求执行器, AsyncContext.start的任务也在其中执行
+     */
+    private final ExecutorService executor;
+
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    private BatchAsyncContext asyncContext;
+
+    BatchRequest(HttpServletRequest request, String method, String path, Map<String, String[]> params, byte[] body,
+                 ExecutorService executor) {
+        super(request);
+        this.method = method;
+        this.path = path;
+        this.params = params;
+        this.body = body;
+        this.executor = executor;
+    }
+
+    BatchAsyncContext getBatchAsyncContext() {
+        return asyncContext;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return path;
+    }
+
+    @Override
+    public String getServletPath() {
+        return "";
+    }
+
+    @Override
+    public String getRequestURI() {
+        return getContextPath() + path;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(getScheme()).append("://").append(getServerName()).append(':')
+                .append(getServerPort()).append(getRequestURI());
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return isHidden(name) ? null : super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return isHidden(name) ? Collections.<String>emptyEnumeration() : super.getHeaders(name);
+    }
+
+    private static boolean isHidden(String name) {
+        for (String hidden : HIDDEN_HEADERS) {
+            if (hidden.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String getQueryString() {
+        return null;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = params.get(name);
+        return null == values || 0 == values.length ? null : values[0];
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return params.get(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(params);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(params.keySet());
+    }
+
+    @Override
+    public int getContentLength() {
+        return null == body ? 0 : body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return getContentLength();
+    }
+
+    @Override
+    public String getContentType() {
+        return null == body ? null : "application/json;charset=UTF-8";
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return "UTF-8";
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream in = new ByteArrayInputStream(null == body ? new byte[0] : body);
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return 0 == in.available();
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                if (!isAsyncStarted()) {
+                    throw new IllegalStateException("子请求未开始异步处理");
+                }
+                // 请求体已在内存中, 总是可读, 直接通知读取并结束
+                try {
+                    readListener.onDataAvailable();
+                    readListener.onAllDataRead();
+                } catch (Throwable e) {
+                    readListener.onError(e);
+                }
+            }
+
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+        };
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object o) {
+        if (null == o) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, o);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("子请求需要传入response开始异步处理");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        asyncContext = new BatchAsyncContext(this, (BatchResponse) servletResponse, executor);
+        return asyncContext;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return null != asyncContext;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return true;
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        if (null == asyncContext) {
+            throw new IllegalStateException("子请求未开始异步处理");
+        }
+        return asyncContext;
+    }
+}
@@ -0,0 +1,55 @@
+package com.murongshian.mvc.bind;
+
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.convert.Converter;
+import com.murongshian.mvc.convert.ConverterRegistry;
+import com.murongshian.mvc.exception.BadRequestException;
+import com.murongshian.mvc.exception.HttpStatusException;
+import com.murongshian.util.CastUtil;
+
+/**
+ * 单值参数解析器基类
+ * 子类只负责从请求中取出字符串, 类型转换由创建时确定的转换器完成
+ */
+public abstract class AbstractValueResolver implements ArgumentResolver {
+    /**
+     * 参数类型
+     */
+    private final Class<?> type;
+
+    /**
+     * 类型转换器
+     */
+    private final Converter<?> converter;
+
+    protected AbstractValueResolver(Class<?> type) {
+        this.type = type;
+        this.converter = ConverterRegistry.getInstance().getConverter(type);
+        if (null == converter) {
+            throw new RuntimeException("不支持的参数类型: " + type.getName());
+        }
+    }
+
+    @Override
+    public Object resolve(RequestHandlerChain handlerChain) {
+        String value = getValue(handlerChain);
+        if (null == value || value.isEmpty()) {
+            return CastUtil.primitiveNull(type);
+        }
+        try {
+            return converter.convert(value);
+        } catch (HttpStatusException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("参数格式错误: " + value);
+        }
+    }
+
+    /**
+     * 从请求中获取字符串值
+     *
+     * @param handlerChain 请求处理链
+     * @return 字符串值, 不存在时返回null
+     */
+    protected abstract String getValue(RequestHandlerChain handlerChain);
+}
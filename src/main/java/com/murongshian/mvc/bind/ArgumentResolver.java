@@ -0,0 +1,18 @@
+package com.murongshian.mvc.bind;
+
+import com.murongshian.mvc.RequestHandlerChain;
+
+/**
+ * controller方法参数解析器
+ * 注册路由时为每个参数创建一个, 请求时直接从request读取所需的值
+ */
+public interface ArgumentResolver {
+    /**
+     * 解析参数
+     *
+     * @param handlerChain 请求处理链
+     * @return 参数值
+     * @throws Exception Exception
+     */
+    Object resolve(RequestHandlerChain handlerChain) throws Exception;
+}
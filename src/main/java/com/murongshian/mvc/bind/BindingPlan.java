@@ -0,0 +1,168 @@
+package com.murongshian.mvc.bind;
+
+import com.murongshian.Doodle;
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.annotation.CookieValue;
+import com.murongshian.mvc.annotation.PathVariable;
+import com.murongshian.mvc.annotation.RequestBody;
+import com.murongshian.mvc.annotation.RequestHeader;
+import com.murongshian.mvc.annotation.RequestParam;
+import com.murongshian.mvc.convert.ConverterRegistry;
+import com.murongshian.mvc.route.RouteTrie;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * controller方法参数绑定计划
+ * 注册路由时按方法参数声明顺序创建解析器, 请求时依次解析, 除参数数组外不创建任何集合
+ */
+public class BindingPlan {
+
+    private static final Object[] EMPTY_ARGS = new Object[0];
+
+    /**
+     * 按参数顺序排列的解析器
+     */
+    private final ArgumentResolver[] resolvers;
+
+    /**
+     * 路由路径中的路径变量名, 按出现顺序
+     */
+    private final List<String> pathVariableNames;
+
+    /**
+     * @RequestHeader绑定的请求头名
+     */
+    private final List<String> headerNames = new ArrayList<>();
+
+    /**
+     * @CookieValue绑定的cookie名
+     */
+    private final List<String> cookieNames = new ArrayList<>();
+
+    /**
+     * 是否有@RequestBody参数
+     */
+    private boolean hasRequestBody;
+
+    public BindingPlan(Method method, String pattern) {
+        pathVariableNames = RouteTrie.getVariableNames(pattern);
+        Parameter[] parameters = method.getParameters();
+        resolvers = new ArgumentResolver[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            resolvers[i] = createResolver(parameters[i]);
+        }
+    }
+
+    /**
+     * 解析方法参数
+     *
+     * @param handlerChain 请求处理链
+     * @return 方法参数
+     * @throws Exception Exception
+     */
+    public Object[] resolve(RequestHandlerChain handlerChain) throws Exception {
+        if (0 == resolvers.length) {
+            return EMPTY_ARGS;
+        }
+        Object[] args = new Object[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(handlerChain);
+        }
+        return args;
+    }
+
+    /**
+     * 参数个数
+     *
+     * @return 参数个数
+     */
+    public int size() {
+        return resolvers.length;
+    }
+
+    /**
+     * 参数绑定的请求头名, 请求合并和响应缓存需要把它们加入key
+     *
+     * @return 请求头名
+     */
+    public String[] getHeaderNames() {
+        return headerNames.toArray(new String[0]);
+    }
+
+    /**
+     * 参数绑定的cookie名, 请求合并和响应缓存需要把它们加入key
+     *
+     * @return cookie名
+     */
+    public String[] getCookieNames() {
+        return cookieNames.toArray(new String[0]);
+    }
+
+    /**
+     * 是否有@RequestBody参数
+     *
+     * @return 是否有
+     */
+    public boolean hasRequestBody() {
+        return hasRequestBody;
+    }
+
+    /**
+     * 根据参数类型和注解创建解析器
+     */
+    private ArgumentResolver createResolver(Parameter parameter) {
+        Class<?> type = parameter.getType();
+        PathVariable pathVariable = parameter.getAnnotation(PathVariable.class);
+        if (null != pathVariable) {
+            String name = getParamName(parameter, pathVariable.value());
+            int index = pathVariableNames.indexOf(name);
+            if (index < 0) {
+                throw new RuntimeException("路由中没有路径变量: " + name);
+            }
+            return new PathVariableResolver(index, type);
+        }
+        if (parameter.isAnnotationPresent(RequestBody.class)) {
+            hasRequestBody = true;
+            return new RequestBodyResolver(parameter.getParameterizedType(), Doodle.getConfiguration().getMaxRequestBodySize());
+        }
+        RequestHeader requestHeader = parameter.getAnnotation(RequestHeader.class);
+        if (null != requestHeader) {
+            String name = getParamName(parameter, requestHeader.value());
+            headerNames.add(name);
+            return new RequestHeaderResolver(name, type);
+        }
+        CookieValue cookieValue = parameter.getAnnotation(CookieValue.class);
+        if (null != cookieValue) {
+            String name = getParamName(parameter, cookieValue.value());
+            cookieNames.add(name);
+            return new CookieValueResolver(name, type);
+        }
+        RequestParam param = parameter.getAnnotation(RequestParam.class);
+        String alias = null == param ? "" : param.value();
+        if (MultiValueParamResolver.isMultiValue(type)) {
+            Class<?> elementType = PojoResolver.elementType(type, parameter.getParameterizedType());
+            return new MultiValueParamResolver(getParamName(parameter, alias), type, elementType);
+        }
+        if (ConverterRegistry.getInstance().supports(type)) {
+            return new RequestParamResolver(getParamName(parameter, alias), type);
+        }
+        return new PojoResolver(type);
+    }
+
+    /**
+     * 获取参数名, 注解没有指定时使用编译时保留的参数名(-parameters)
+     */
+    private String getParamName(Parameter parameter, String alias) {
+        if (!alias.isEmpty()) {
+            return alias;
+        }
+        if (parameter.isNamePresent()) {
+            return parameter.getName();
+        }
+        throw new RuntimeException("必须有RequestParam指定的参数名");
+    }
+}
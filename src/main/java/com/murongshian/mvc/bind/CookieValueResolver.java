@@ -0,0 +1,67 @@
+package com.murongshian.mvc.bind;
+
+import com.murongshian.mvc.RequestHandlerChain;
+
+/**
+ * cookie解析器
+ * 不调用request.getCookies()解析全部cookie, 而是在Cookie请求头中只查找声明的cookie名, 只截取该cookie的值
+ */
+public class CookieValueResolver extends AbstractValueResolver {
+
+    private static final String COOKIE_HEADER = "Cookie";
+
+    /**
+     * cookie名
+     */
+    private final String name;
+
+    public CookieValueResolver(String name, Class<?> type) {
+        super(type);
+        this.name = name;
+    }
+
+    @Override
+    protected String getValue(RequestHandlerChain handlerChain) {
+        return findCookie(handlerChain.getRequest().getHeader(COOKIE_HEADER), name);
+    }
+
+    /**
+     * 在Cookie请求头中查找cookie, 格式为 name1=value1; name2=value2
+     *
+     * @param header Cookie请求头
+     * @param name   cookie名
+     * @return cookie值, 不存在时返回null
+     */
+    public static String findCookie(String header, String name) {
+        if (null == header) {
+            return null;
+        }
+        int length = header.length();
+        int nameLength = name.length();
+        int pos = 0;
+        while (pos < length) {
+            while (pos < length && (header.charAt(pos) == ' ' || header.charAt(pos) == ';')) {
+                pos++;
+            }
+            int end = header.indexOf(';', pos);
+            if (end < 0) {
+                end = length;
+            }
+            int nameEnd = pos + nameLength;
+            if (nameEnd < end && header.charAt(nameEnd) == '=' && header.regionMatches(pos, name, 0, nameLength)) {
+                int valueStart = nameEnd + 1;
+                int valueEnd = end;
+                while (valueEnd > valueStart && header.charAt(valueEnd - 1) == ' ') {
+                    valueEnd--;
+                }
+                if (valueEnd - valueStart >= 2 && header.charAt(valueStart) == '"' && header.charAt(valueEnd - 1) == '"') {
+                    valueStart++;
+                    valueEnd--;
+                }
+                return header.substring(valueStart, valueEnd);
+            }
+            pos = end + 1;
+        }
+        return null;
+    }
+}
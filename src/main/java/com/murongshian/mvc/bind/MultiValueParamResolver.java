@@ -0,0 +1,98 @@
+package com.murongshian.mvc.bind;
+
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.convert.ArrayConverter;
+import com.murongshian.mvc.convert.Converter;
+import com.murongshian.mvc.convert.ConverterRegistry;
+import com.murongshian.mvc.exception.BadRequestException;
+import com.murongshian.mvc.exception.HttpStatusException;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 多值请求参数解析器, 支持数组、List和Set
+ */
+public class MultiValueParamResolver implements ArgumentResolver {
+    /**
+     * 请求参数名
+     */
+    private final String name;
+
+    /**
+     * 参数类型
+     */
+    private final Class<?> type;
+
+    /**
+     * 数组转换器, 参数为集合时为null
+     */
+    private final ArrayConverter arrayConverter;
+
+    /**
+     * 集合元素转换器, 参数为数组时为null
+     */
+    private final Converter<?> elementConverter;
+
+    public MultiValueParamResolver(String name, Class<?> type, Class<?> elementType) {
+        this.name = name;
+        this.type = type;
+        ConverterRegistry registry = ConverterRegistry.getInstance();
+        if (type.isArray()) {
+            this.arrayConverter = (ArrayConverter) registry.getConverter(Array.newInstance(elementType, 0).getClass());
+            this.elementConverter = null;
+        } else {
+            this.arrayConverter = null;
+            this.elementConverter = registry.getConverter(elementType);
+        }
+        if (null == arrayConverter && null == elementConverter) {
+            throw new RuntimeException("不支持的参数类型: " + elementType.getName());
+        }
+    }
+
+    @Override
+    public Object resolve(RequestHandlerChain handlerChain) {
+        String[] values = handlerChain.getRequest().getParameterValues(name);
+        if (null == values) {
+            return null;
+        }
+        try {
+            return convert(values);
+        } catch (HttpStatusException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("参数格式错误: " + name);
+        }
+    }
+
+    private Object convert(String[] values) {
+        if (null != arrayConverter) {
+            return arrayConverter.convert(values);
+        }
+        Collection<Object> collection;
+        if (Set.class.isAssignableFrom(type)) {
+            collection = new LinkedHashSet<>(values.length * 2);
+        } else {
+            collection = new ArrayList<>(values.length);
+        }
+        for (String value : values) {
+            collection.add(elementConverter.convert(value));
+        }
+        return collection;
+    }
+
+    /**
+     * 是否为多值参数类型
+     *
+     * @param type 参数类型
+     * @return 是否为数组、List或Set
+     */
+    public static boolean isMultiValue(Class<?> type) {
+        return (type.isArray() && type != byte[].class) || type == List.class || type == Collection.class
+                || type == Set.class || type == ArrayList.class || type == LinkedHashSet.class;
+    }
+}
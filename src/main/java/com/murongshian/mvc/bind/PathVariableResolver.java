@@ -0,0 +1,24 @@
+package com.murongshian.mvc.bind;
+
+import com.murongshian.mvc.RequestHandlerChain;
+
+/**
+ * 路径变量解析器
+ * 变量下标在注册路由时确定, 直接从路由匹配结果中按下标截取
+ */
+public class PathVariableResolver extends AbstractValueResolver {
+    /**
+     * 路径变量下标
+     */
+    private final int index;
+
+    public PathVariableResolver(int index, Class<?> type) {
+        super(type);
+        this.index = index;
+    }
+
+    @Override
+    protected String getValue(RequestHandlerChain handlerChain) {
+        return handlerChain.getRouteMatch().getPathVariable(index);
+    }
+}
@@ -0,0 +1,208 @@
+package com.murongshian.mvc.bind;
+
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.convert.Converter;
+import com.murongshian.mvc.convert.ConverterRegistry;
+import com.murongshian.mvc.convert.PrimitiveConverter;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * POJO参数解析器
+ * 注册路由时确定POJO的构造器和每个属性的setter或字段, 请求时按属性名逐个读取请求参数并赋值
+ */
+public class PojoResolver implements ArgumentResolver {
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+
+    /**
+     * POJO无参构造器
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * 属性绑定器
+     */
+    private final PropertyBinder[] binders;
+
+    public PojoResolver(Class<?> type) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Constructor<?> ctor = type.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            this.constructor = lookup.unreflectConstructor(ctor).asType(CONSTRUCTOR_TYPE);
+
+            List<PropertyBinder> binderList = new ArrayList<>();
+            Set<String> bound = new HashSet<>();
+            // 优先使用setter
+            BeanInfo beanInfo = Introspector.getBeanInfo(type, Object.class);
+            for (PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors()) {
+                Method writeMethod = descriptor.getWriteMethod();
+                if (null != writeMethod && isBindable(descriptor.getPropertyType(), writeMethod.getGenericParameterTypes()[0])) {
+                    writeMethod.setAccessible(true);
+                    MethodHandle setter = lookup.unreflect(writeMethod).asType(setterType(descriptor.getPropertyType()));
+                    Type genericType = writeMethod.getGenericParameterTypes()[0];
+                    binderList.add(new PropertyBinder(descriptor.getName(), descriptor.getPropertyType(), genericType, setter));
+                    bound.add(descriptor.getName());
+                }
+            }
+            // 没有setter的非静态非final字段直接赋值
+            for (Class<?> clz = type; clz != Object.class && null != clz; clz = clz.getSuperclass()) {
+                for (Field field : clz.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()
+                            || !isBindable(field.getType(), field.getGenericType()) || !bound.add(field.getName())) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    MethodHandle setter = lookup.unreflectSetter(field).asType(setterType(field.getType()));
+                    binderList.add(new PropertyBinder(field.getName(), field.getType(), field.getGenericType(), setter));
+                }
+            }
+            this.binders = binderList.toArray(new PropertyBinder[0]);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("POJO参数必须有无参构造器: " + type.getName(), e);
+        } catch (IllegalAccessException | IntrospectionException e) {
+            System.err.println("create PojoResolver error" + e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Object resolve(RequestHandlerChain handlerChain) throws Exception {
+        try {
+            Object pojo = constructor.invokeExact();
+            for (PropertyBinder binder : binders) {
+                binder.bind(handlerChain, pojo);
+            }
+            return pojo;
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 属性是否可以从请求参数绑定
+     */
+    private static boolean isBindable(Class<?> type, Type genericType) {
+        ConverterRegistry registry = ConverterRegistry.getInstance();
+        if (MultiValueParamResolver.isMultiValue(type)) {
+            return registry.supports(elementType(type, genericType));
+        }
+        return registry.supports(type);
+    }
+
+    /**
+     * setter句柄类型, 基本类型属性保留基本类型参数以避免装箱
+     */
+    private static MethodType setterType(Class<?> type) {
+        return MethodType.methodType(void.class, Object.class, type.isPrimitive() ? type : Object.class);
+    }
+
+    /**
+     * 获取集合属性的元素类型, 无法确定时为String
+     *
+     * @param type        属性类型
+     * @param genericType 泛型类型
+     * @return 元素类型
+     */
+    static Class<?> elementType(Class<?> type, Type genericType) {
+        if (type.isArray()) {
+            return type.getComponentType();
+        }
+        if (genericType instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                return (Class<?>) argument;
+            }
+        }
+        return String.class;
+    }
+
+    /**
+     * 属性绑定器
+     */
+    private static final class PropertyBinder {
+        /**
+         * 属性名, 即请求参数名
+         */
+        private final String name;
+
+        /**
+         * 基本类型属性的转换器, 直接调用基本类型setter
+         */
+        private final PrimitiveConverter primitiveConverter;
+
+        /**
+         * 其他单值属性的转换器
+         */
+        private final Converter<?> converter;
+
+        /**
+         * 多值属性的解析器
+         */
+        private final MultiValueParamResolver multiValueResolver;
+
+        /**
+         * setter或字段赋值句柄
+         */
+        private final MethodHandle setter;
+
+        private PropertyBinder(String name, Class<?> type, Type genericType, MethodHandle setter) {
+            this.name = name;
+            this.setter = setter;
+            if (MultiValueParamResolver.isMultiValue(type)) {
+                this.multiValueResolver = new MultiValueParamResolver(name, type, elementType(type, genericType));
+                this.primitiveConverter = null;
+                this.converter = null;
+            } else if (type.isPrimitive()) {
+                this.multiValueResolver = null;
+                this.primitiveConverter = PrimitiveConverter.of(type);
+                this.converter = null;
+            } else {
+                this.multiValueResolver = null;
+                this.primitiveConverter = null;
+                this.converter = ConverterRegistry.getInstance().getConverter(type);
+            }
+        }
+
+        private void bind(RequestHandlerChain handlerChain, Object pojo) throws Throwable {
+            if (null != multiValueResolver) {
+                Object value = multiValueResolver.resolve(handlerChain);
+                if (null != value) {
+                    setter.invokeExact(pojo, value);
+                }
+                return;
+            }
+            String requestValue = handlerChain.getRequest().getParameter(name);
+            // 请求中没有该参数时保留属性默认值
+            if (null == requestValue || requestValue.isEmpty()) {
+                return;
+            }
+            if (null != primitiveConverter) {
+                primitiveConverter.invokeSetter(setter, pojo, requestValue);
+            } else {
+                setter.invokeExact(pojo, (Object) converter.convert(requestValue));
+            }
+        }
+    }
+}
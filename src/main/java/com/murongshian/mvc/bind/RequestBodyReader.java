@@ -0,0 +1,154 @@
+package com.murongshian.mvc.bind;
+
+import com.murongshian.mvc.exception.PayloadTooLargeException;
+import com.murongshian.util.BufferPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 请求体Reader
+ * 通过池化的字节缓冲边读边解码, 内存占用与请求体大小无关; 读取超过最大长度时抛出PayloadTooLargeException
+ * 关闭时只归还缓冲, 不关闭请求的输入流
+ */
+public class RequestBodyReader extends Reader {
+
+    /**
+     * 读取缓冲池
+     */
+    private static final BufferPool BUFFER_POOL = new BufferPool(8 * 1024, 256);
+
+    /**
+     * 每个线程复用的UTF-8解码器
+     */
+    private static final ThreadLocal<CharsetDecoder> UTF8_DECODER = new ThreadLocal<CharsetDecoder>() {
+        @Override
+        protected CharsetDecoder initialValue() {
+            return StandardCharsets.UTF_8.newDecoder();
+        }
+    };
+
+    /**
+     * 请求输入流
+     */
+    private final InputStream in;
+
+    /**
+     * 最大长度
+     */
+    private final long maxSize;
+
+    /**
+     * 解码器
+     */
+    private final CharsetDecoder decoder;
+
+    /**
+     * 已读取的字节数
+     */
+    private long total;
+
+    /**
+     * 池化的字节缓冲
+     */
+    private byte[] bytes;
+
+    /**
+     * 字节缓冲的读视图
+     */
+    private ByteBuffer byteBuffer;
+
+    /**
+     * 上一次read使用的字符数组及其包装, 调用方通常复用同一个数组
+     */
+    private char[] lastChars;
+    private CharBuffer lastCharBuffer;
+
+    /**
+     * 输入流是否已读完
+     */
+    private boolean eof;
+
+    public RequestBodyReader(InputStream in, String encoding, long maxSize) {
+        this.in = in;
+        this.maxSize = maxSize;
+        if (null == encoding || StandardCharsets.UTF_8.name().equalsIgnoreCase(encoding)) {
+            this.decoder = UTF8_DECODER.get().reset();
+        } else {
+            this.decoder = Charset.forName(encoding).newDecoder();
+        }
+        this.bytes = BUFFER_POOL.acquire();
+        this.byteBuffer = ByteBuffer.wrap(bytes);
+        this.byteBuffer.limit(0);
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (null == bytes) {
+            throw new IOException("Reader已关闭");
+        }
+        if (0 == len) {
+            return 0;
+        }
+        CharBuffer out = wrap(cbuf, off, len);
+        while (true) {
+            CoderResult result = decoder.decode(byteBuffer, out, eof);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (out.position() > off) {
+                return out.position() - off;
+            }
+            if (eof) {
+                decoder.flush(out);
+                return out.position() > off ? out.position() - off : -1;
+            }
+            fill();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (null != bytes) {
+            BUFFER_POOL.release(bytes);
+            bytes = null;
+            byteBuffer = null;
+        }
+    }
+
+    /**
+     * 从输入流读取更多字节, 未解码完的字节保留在缓冲开头
+     */
+    private void fill() throws IOException {
+        byteBuffer.compact();
+        int n = in.read(bytes, byteBuffer.position(), byteBuffer.remaining());
+        if (n < 0) {
+            eof = true;
+        } else {
+            total += n;
+            if (total > maxSize) {
+                throw new PayloadTooLargeException("请求体超过最大长度: " + maxSize);
+            }
+            byteBuffer.position(byteBuffer.position() + n);
+        }
+        byteBuffer.flip();
+    }
+
+    private CharBuffer wrap(char[] cbuf, int off, int len) {
+        if (cbuf != lastChars) {
+            lastChars = cbuf;
+            lastCharBuffer = CharBuffer.wrap(cbuf);
+        }
+        lastCharBuffer.clear();
+        lastCharBuffer.limit(off + len);
+        lastCharBuffer.position(off);
+        return lastCharBuffer;
+    }
+}
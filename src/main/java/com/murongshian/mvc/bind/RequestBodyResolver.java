@@ -0,0 +1,80 @@
+package com.murongshian.mvc.bind;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONReader;
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.exception.BadRequestException;
+import com.murongshian.mvc.exception.HttpStatusException;
+import com.murongshian.mvc.exception.PayloadTooLargeException;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.CharacterCodingException;
+
+/**
+ * json请求体解析器
+ * 直接从request.getInputStream()流式反序列化, 不把请求体读成String
+ */
+public class RequestBodyResolver implements ArgumentResolver {
+    /**
+     * 参数类型, 包含泛型信息
+     */
+    private final Type type;
+
+    /**
+     * 请求体最大长度
+     */
+    private final long maxSize;
+
+    public RequestBodyResolver(Type type, long maxSize) {
+        this.type = type;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public Object resolve(RequestHandlerChain handlerChain) throws Exception {
+        HttpServletRequest request = handlerChain.getRequest();
+        if (0 == request.getContentLengthLong()) {
+            return null;
+        }
+        return read(request, type, maxSize);
+    }
+
+    /**
+     * 从请求体流式反序列化
+     * 字符集不支持、字节不符合字符集、json格式错误和类型转换失败都按请求错误处理
+     *
+     * @param request 请求
+     * @param type    目标类型, 可以带泛型
+     * @param maxSize 请求体最大长度
+     * @return 反序列化结果
+     */
+    public static <T> T read(HttpServletRequest request, Type type, long maxSize) throws IOException {
+        if (request.getContentLengthLong() > maxSize) {
+            throw new PayloadTooLargeException("请求体超过最大长度: " + maxSize);
+        }
+        String encoding = request.getCharacterEncoding();
+        RequestBodyReader reader;
+        try {
+            reader = new RequestBodyReader(request.getInputStream(), encoding, maxSize);
+        } catch (IllegalArgumentException e) {
+            // 字符集名称错误或不支持
+            throw new BadRequestException("不支持的字符集: " + encoding);
+        }
+        try (JSONReader jsonReader = new JSONReader(reader)) {
+            return jsonReader.readObject(type);
+        } catch (HttpStatusException e) {
+            throw e;
+        } catch (JSONException e) {
+            // fastjson把Reader的异常包装为JSONException, 包括字节不符合字符集时的MalformedInputException
+            if (e.getCause() instanceof CharacterCodingException) {
+                throw new BadRequestException("请求体字符编码错误: " + encoding);
+            }
+            throw new BadRequestException("请求体格式错误: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // 数字格式错误、类型不匹配等
+            throw new BadRequestException("请求体格式错误: " + e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.murongshian.mvc.bind;
+
+import com.murongshian.mvc.RequestHandlerChain;
+
+/**
+ * 请求头解析器, 只读取声明的请求头
+ */
+public class RequestHeaderResolver extends AbstractValueResolver {
+    /**
+     * 请求头名
+     */
+    private final String name;
+
+    public RequestHeaderResolver(String name, Class<?> type) {
+        super(type);
+        this.name = name;
+    }
+
+    @Override
+    protected String getValue(RequestHandlerChain handlerChain) {
+        return handlerChain.getRequest().getHeader(name);
+    }
+}
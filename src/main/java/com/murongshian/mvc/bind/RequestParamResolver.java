@@ -0,0 +1,23 @@
+package com.murongshian.mvc.bind;
+
+import com.murongshian.mvc.RequestHandlerChain;
+
+/**
+ * 单值请求参数解析器
+ */
+public class RequestParamResolver extends AbstractValueResolver {
+    /**
+     * 请求参数名
+     */
+    private final String name;
+
+    public RequestParamResolver(String name, Class<?> type) {
+        super(type);
+        this.name = name;
+    }
+
+    @Override
+    protected String getValue(RequestHandlerChain handlerChain) {
+        return handlerChain.getRequest().getParameter(name);
+    }
+}
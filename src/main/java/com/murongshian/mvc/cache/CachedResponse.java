@@ -0,0 +1,41 @@
+package com.murongshian.mvc.cache;
+
+/**
+ * 缓存的响应
+ * 序列化好的响应体和渲染时需要的响应头, 创建后不再修改, 多个请求共用
+ */
+public class CachedResponse {
+
+    /**
+     * 响应的Content-Type, 包含字符集
+     */
+    private final String contentType;
+
+    /**
+     * 响应头Vary, 没有时为null
+     */
+    private final String vary;
+
+    /**
+     * 响应体
+     */
+    private final byte[] body;
+
+    public CachedResponse(String contentType, String vary, byte[] body) {
+        this.contentType = contentType;
+        this.vary = vary;
+        this.body = body;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getVary() {
+        return vary;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
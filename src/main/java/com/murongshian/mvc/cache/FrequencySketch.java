@@ -0,0 +1,102 @@
+package com.murongshian.mvc.cache;
+
+/**
+ * 访问频率估计
+ * 4行的Count-Min Sketch, 每个计数器4位, 一个long存放16个; 计数总数达到表大小的10倍时所有计数减半, 使估计偏向近期的访问
+ * 不加锁, 并发更新可能丢失部分计数, 只影响估计精度
+ */
+final class FrequencySketch {
+
+    /**
+     * 每行的hash种子
+     */
+    private static final long[] SEEDS = {
+            0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+    };
+
+    /**
+     * 计数器最大值
+     */
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+
+    /**
+     * 计数器个数减一
+     */
+    private final int counterMask;
+
+    /**
+     * 触发减半的计数总数
+     */
+    private final int sampleSize;
+
+    private int additions;
+
+    /**
+     * @param capacity 预计的元素个数
+     */
+    FrequencySketch(int capacity) {
+        int size = 16;
+        while (size < capacity && size < (1 << 24)) {
+            size <<= 1;
+        }
+        // 每个long有16个计数器, 计数器个数为元素个数的4倍
+        table = new long[size >>> 2];
+        counterMask = (size << 2) - 1;
+        sampleSize = size * 10;
+    }
+
+    /**
+     * 估计访问次数
+     *
+     * @param hash 元素hash
+     * @return 访问次数, 最大为15
+     */
+    int frequency(int hash) {
+        int min = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            min = Math.min(min, get(index(hash, i)));
+        }
+        return min;
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @param hash 元素hash
+     */
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = index(hash, i);
+            if (get(index) < MAX_COUNT) {
+                table[index >>> 4] += 1L << ((index & 15) << 2);
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * 所有计数减半
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+        }
+        additions >>>= 1;
+    }
+
+    private int get(int index) {
+        return (int) (table[index >>> 4] >>> ((index & 15) << 2)) & MAX_COUNT;
+    }
+
+    private int index(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & counterMask;
+    }
+}
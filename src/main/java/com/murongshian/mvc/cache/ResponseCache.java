@@ -0,0 +1,402 @@
+package com.murongshian.mvc.cache;
+
+import com.murongshian.mvc.RequestKeys;
+import com.murongshian.mvc.executor.ExecutorType;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 响应缓存
+ * 所有@CacheResponse路由共用, 按响应体字节数限制总大小; 启动时注册到bean容器, 可以通过@Autowired注入后调用invalidate使缓存失效
+ * 命中时只有一次ConcurrentHashMap查找和一次频率计数, 不加锁; 加入和淘汰在锁内进行:
+ * 超出大小时从轮转采样的几个条目中选出访问频率最低的淘汰, 已过期的优先;
+ * 新条目的访问频率低于任一被淘汰的未过期条目时不加入缓存, 也不淘汰任何条目, 偶尔访问一次的请求不会把常用的响应挤出去
+ */
+public class ResponseCache {
+
+    /**
+     * 每次淘汰采样的条目数
+     */
+    private static final int SAMPLE_SIZE = 8;
+
+    /**
+     * 每个条目除响应体和key之外的估计内存占用
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    /**
+     * 估计频率时按平均每个条目的字节数推算条目数
+     */
+    private static final int AVERAGE_ENTRY_SIZE = 2048;
+
+    /**
+     * 缓存的条目
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 未命中时正在加载的响应, 加载完成后移除
+     */
+    private final Map<String, CompletableFuture<CachedResponse>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 访问频率
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * 后台刷新执行器等待队列长度
+     */
+    private final int refreshQueueSize;
+
+    /**
+     * 后台刷新执行器, 第一次后台刷新时创建
+     */
+    private volatile ExecutorService refreshExecutor;
+
+    /**
+     * 是否已关闭
+     */
+    private boolean closed;
+
+    /**
+     * 最大总字节数
+     */
+    private final long maxBytes;
+
+    /**
+     * 当前总字节数, 只在锁内修改
+     */
+    private long weightedSize;
+
+    /**
+     * 淘汰时采样用的轮转迭代器, 只在锁内使用
+     */
+    private Iterator<Entry> sampler;
+
+    /**
+     * 正在执行的加载, 包括未命中和后台刷新; 加载期间对应路径失效时标记, 结果不再加入缓存
+     */
+    private final Set<Load> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param maxBytes         缓存的最大总字节数
+     * @param refreshQueueSize 后台刷新执行器等待队列长度
+     */
+    public ResponseCache(long maxBytes, int refreshQueueSize) {
+        this.maxBytes = maxBytes;
+        this.refreshQueueSize = refreshQueueSize;
+        this.sketch = new FrequencySketch((int) Math.min(1 << 20, Math.max(16, maxBytes / AVERAGE_ENTRY_SIZE)));
+    }
+
+    /**
+     * 获取缓存的响应, 没有或已过期时加载
+     * 过期但仍在staleNanos内时返回过期的响应, 同时在后台重新加载; 同一个key的加载同时只有一个
+     *
+     * @param key        缓存key
+     * @param ttlNanos   有效时间(纳秒)
+     * @param staleNanos 过期后仍可使用的时间(纳秒)
+     * @param loader     加载响应, 返回null时不缓存
+     * @return 响应, 命中时是已完成的stage
+     */
+    public CompletionStage<CachedResponse> get(String key, long ttlNanos, long staleNanos,
+                                               Supplier<CompletionStage<CachedResponse>> loader) {
+        int hash = key.hashCode();
+        sketch.increment(hash);
+        Entry entry = entries.get(key);
+        if (null != entry) {
+            long now = System.nanoTime();
+            if (now - entry.expiresAt < 0) {
+                return entry.future;
+            }
+            if (now - entry.staleUntil < 0) {
+                if (entry.refreshing.compareAndSet(false, true)) {
+                    refresh(key, entry, ttlNanos, staleNanos, loader);
+                }
+                return entry.future;
+            }
+        }
+        CompletableFuture<CachedResponse> flight = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> existing = loading.putIfAbsent(key, flight);
+        if (null != existing) {
+            return existing.thenApply(Function.identity());
+        }
+        load(key, ttlNanos, staleNanos, loader).whenComplete((value, ex) -> {
+            loading.remove(key, flight);
+            if (null != ex) {
+                flight.completeExceptionally(ex instanceof CompletionException && null != ex.getCause() ? ex.getCause() : ex);
+            } else {
+                flight.complete(value);
+            }
+        });
+        return flight.thenApply(Function.identity());
+    }
+
+    /**
+     * 使请求路径的所有缓存失效, 不论请求参数和请求头
+     *
+     * @param path 请求路径
+     */
+    public synchronized void invalidate(String path) {
+        for (Load load : inFlight) {
+            if (RequestKeys.matchesPath(load.key, path)) {
+                load.invalidated = true;
+            }
+        }
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (RequestKeys.matchesPath(entry.key, path)) {
+                iterator.remove();
+                weightedSize -= entry.weight;
+            }
+        }
+    }
+
+    /**
+     * 使所有缓存失效
+     */
+    public synchronized void invalidateAll() {
+        for (Load load : inFlight) {
+            load.invalidated = true;
+        }
+        entries.clear();
+        weightedSize = 0;
+    }
+
+    /**
+     * 当前缓存的总字节数
+     */
+    public synchronized long getWeightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * 停止后台刷新
+     */
+    public synchronized void shutdown() {
+        closed = true;
+        if (null != refreshExecutor) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 执行加载, 完成后加入缓存
+     */
+    private CompletionStage<CachedResponse> load(String key, long ttlNanos, long staleNanos,
+                                                 Supplier<CompletionStage<CachedResponse>> loader) {
+        Load load = new Load(key);
+        inFlight.add(load);
+        CompletionStage<CachedResponse> stage;
+        try {
+            stage = loader.get();
+        } catch (Throwable e) {
+            inFlight.remove(load);
+            CompletableFuture<CachedResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        // 加入缓存之后才移除, 加入之前的失效都能标记到这次加载
+        return stage.thenApply(value -> {
+            if (null != value) {
+                put(load, value, ttlNanos, staleNanos);
+            }
+            return value;
+        }).whenComplete((value, ex) -> inFlight.remove(load));
+    }
+
+    /**
+     * 在后台线程中重新加载, 失败时保留过期的响应, 下一次命中时再尝试
+     */
+    private void refresh(String key, Entry entry, long ttlNanos, long staleNanos,
+                         Supplier<CompletionStage<CachedResponse>> loader) {
+        ExecutorService executor = refreshExecutor;
+        if (null == executor) {
+            executor = startRefreshExecutor();
+        }
+        try {
+            // 结束后总是清除标记: 替换成功时旧条目已不在缓存中; 失败、返回null、失效或超出大小时下一次命中重新刷新
+            executor.execute(() -> load(key, ttlNanos, staleNanos, loader)
+                    .whenComplete((value, ex) -> entry.refreshing.set(false)));
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    /**
+     * 创建后台刷新执行器, 没有使用staleWhileRevalidate的应用不创建线程池; 已关闭时创建后立即关闭, 刷新被拒绝
+     */
+    private synchronized ExecutorService startRefreshExecutor() {
+        if (null == refreshExecutor) {
+            refreshExecutor = ExecutorType.BOUNDED.create("cache-refresh", 0, refreshQueueSize);
+            if (closed) {
+                refreshExecutor.shutdownNow();
+            }
+        }
+        return refreshExecutor;
+    }
+
+    /**
+     * 加入缓存, 超出大小时淘汰
+     */
+    private synchronized void put(Load load, CachedResponse response, long ttlNanos, long staleNanos) {
+        if (load.invalidated) {
+            return;
+        }
+        String key = load.key;
+        long weight = response.getBody().length + key.length() * 2L + ENTRY_OVERHEAD;
+        if (weight > maxBytes) {
+            return;
+        }
+        // 已缓存的key直接替换, 不需要准入
+        Entry old = entries.remove(key);
+        if (null != old) {
+            weightedSize -= old.weight;
+        }
+        // 先选出足够腾出空间的条目, 新条目准入后才淘汰, 不准入时缓存保持不变
+        Set<Entry> victims = selectVictims(weightedSize + weight - maxBytes);
+        if (null == old && !admit(key, victims)) {
+            return;
+        }
+        for (Entry victim : victims) {
+            entries.remove(victim.key, victim);
+            weightedSize -= victim.weight;
+        }
+        long now = System.nanoTime();
+        entries.put(key, new Entry(key, response, weight, now + ttlNanos, now + ttlNanos + staleNanos));
+        weightedSize += weight;
+    }
+
+    /**
+     * 新条目的访问频率不低于所有未过期的淘汰条目时准入
+     */
+    private boolean admit(String key, Set<Entry> victims) {
+        int frequency = sketch.frequency(key.hashCode());
+        long now = System.nanoTime();
+        for (Entry victim : victims) {
+            if (now - victim.staleUntil < 0 && frequency < sketch.frequency(victim.key.hashCode())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 选出总字节数不少于needed的淘汰条目, 不移除; 条目不够时返回所有能选出的
+     */
+    private Set<Entry> selectVictims(long needed) {
+        if (needed <= 0) {
+            return Collections.emptySet();
+        }
+        Set<Entry> victims = new HashSet<>();
+        long freed = 0;
+        while (freed < needed) {
+            Entry victim = sampleVictim(victims);
+            if (null == victim) {
+                break;
+            }
+            victims.add(victim);
+            freed += victim.weight;
+        }
+        return victims;
+    }
+
+    /**
+     * 轮转采样几个未选出的条目, 返回已过期的或访问频率最低的
+     */
+    private Entry sampleVictim(Set<Entry> selected) {
+        Entry victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        long now = System.nanoTime();
+        boolean restarted = false;
+        int sampled = 0;
+        while (sampled < SAMPLE_SIZE) {
+            if (null == sampler || !sampler.hasNext()) {
+                if (restarted) {
+                    break;
+                }
+                sampler = entries.values().iterator();
+                restarted = true;
+                if (!sampler.hasNext()) {
+                    break;
+                }
+            }
+            Entry entry = sampler.next();
+            // 迭代器可能返回已被替换或移除的条目
+            if (selected.contains(entry) || entries.get(entry.key) != entry) {
+                continue;
+            }
+            sampled++;
+            if (now - entry.staleUntil >= 0) {
+                return entry;
+            }
+            int frequency = sketch.frequency(entry.key.hashCode());
+            if (frequency < victimFrequency) {
+                victim = entry;
+                victimFrequency = frequency;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * 一次加载
+     */
+    private static final class Load {
+        private final String key;
+
+        /**
+         * 加载期间路径已失效, 只在锁内修改和读取
+         */
+        private boolean invalidated;
+
+        private Load(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+        private final String key;
+
+        /**
+         * 已完成的stage, 命中时直接返回, 不为每次请求创建
+         */
+        private final CompletableFuture<CachedResponse> future;
+
+        private final long weight;
+
+        private final long expiresAt;
+
+        private final long staleUntil;
+
+        /**
+         * 是否正在后台刷新
+         */
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(String key, CachedResponse response, long weight, long expiresAt, long staleUntil) {
+            this.key = key;
+            this.future = CompletableFuture.completedFuture(response);
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+            this.staleUntil = staleUntil;
+        }
+    }
+}
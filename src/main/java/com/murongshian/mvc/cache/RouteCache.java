@@ -0,0 +1,120 @@
+package com.murongshian.mvc.cache;
+
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.RequestKeys;
+import com.murongshian.mvc.invoker.ControllerInvoker;
+import com.murongshian.mvc.render.JsonRender;
+import com.murongshian.mvc.serializer.BinaryFormat;
+import com.murongshian.mvc.serializer.MessageWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个路由的响应缓存
+ * 缓存key为请求路径、按名称排序的请求参数、varyOn和参数绑定的请求头、参数绑定的cookie和协商的响应格式;
+ * 未命中时执行controller方法并用路由的MessageWriter序列化, 结果与Content-Type一起加入共用的ResponseCache
+ */
+public class RouteCache {
+
+    private final ResponseCache cache;
+
+    private final long ttlNanos;
+
+    private final long staleNanos;
+
+    /**
+     * 参与缓存key的请求头, 包括varyOn和参数绑定的请求头
+     */
+    private final String[] headerNames;
+
+    /**
+     * 参与缓存key的cookie, 即参数绑定的cookie
+     */
+    private final String[] cookieNames;
+
+    /**
+     * 路由的渲染器, 用于选择序列化器
+     */
+    private final JsonRender render;
+
+    /**
+     * @param cache                      共用的响应缓存
+     * @param ttlMillis                  有效时间(毫秒)
+     * @param staleWhileRevalidateMillis 过期后仍可使用的时间(毫秒)
+     * @param headerNames                参与缓存key的请求头
+     * @param cookieNames                参与缓存key的cookie
+     * @param render                     路由的渲染器
+     */
+    public RouteCache(ResponseCache cache, long ttlMillis, long staleWhileRevalidateMillis, String[] headerNames,
+                      String[] cookieNames, JsonRender render) {
+        this.cache = cache;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.staleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, staleWhileRevalidateMillis));
+        this.headerNames = headerNames;
+        this.cookieNames = cookieNames;
+        this.render = render;
+    }
+
+    /**
+     * 获取缓存的响应, 未命中时执行controller方法
+     *
+     * @param handlerChain 请求处理链
+     * @param invoker      controller方法调用器
+     * @param args         controller方法参数
+     * @return 缓存的响应, 命中时是已完成的stage
+     */
+    public CompletionStage<CachedResponse> execute(RequestHandlerChain handlerChain, ControllerInvoker invoker, Object[] args) {
+        MessageWriter writer = render.selectWriter(handlerChain.getRequest());
+        String key = RequestKeys.of(handlerChain, headerNames, cookieNames);
+        if (render.isBinary(writer)) {
+            key = RequestKeys.withFormat(key, BinaryFormat.CONTENT_TYPE);
+        }
+        String contentType = render.getContentType(writer);
+        String vary = render.isNegotiable() ? "Accept" : null;
+        // 后台刷新时执行, 不能引用请求处理链
+        return cache.get(key, ttlNanos, staleNanos, () -> load(invoker, args, writer, contentType, vary));
+    }
+
+    /**
+     * 执行controller方法并序列化, 返回null时不缓存
+     */
+    private static CompletionStage<CachedResponse> load(ControllerInvoker invoker, Object[] args, MessageWriter writer,
+                                                        String contentType, String vary) {
+        Object result;
+        try {
+            result = invoker.invoke(args);
+        } catch (Throwable e) {
+            CompletableFuture<CachedResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        if (result instanceof CompletionStage) {
+            return ((CompletionStage<?>) result).thenApply(value -> serialize(value, writer, contentType, vary));
+        }
+        try {
+            return CompletableFuture.completedFuture(serialize(result, writer, contentType, vary));
+        } catch (Throwable e) {
+            CompletableFuture<CachedResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static CachedResponse serialize(Object value, MessageWriter writer, String contentType, String vary) {
+        if (null == value) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writer.write(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new CachedResponse(contentType, vary, out.toByteArray());
+    }
+}
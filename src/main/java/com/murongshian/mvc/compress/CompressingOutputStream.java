@@ -0,0 +1,139 @@
+package com.murongshian.mvc.compress;
+
+import com.murongshian.util.BufferPool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 压缩输出流
+ * 使用池化的Deflater和输出缓冲, finish()写出剩余数据并归还, abort()不写出直接归还; 不关闭目标输出流
+ */
+public class CompressingOutputStream extends OutputStream {
+
+    /**
+     * 压缩输出缓冲池
+     */
+    private static final BufferPool BUFFER_POOL = new BufferPool(8 * 1024, 128);
+
+    /**
+     * gzip头: 魔数, deflate算法, 无标志, 无时间, 无额外标志, 未知系统
+     */
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final OutputStream out;
+
+    private final DeflaterPool pool;
+
+    private final ContentEncoding encoding;
+
+    private Deflater deflater;
+
+    private byte[] buffer;
+
+    /**
+     * gzip的CRC32, deflate时为null
+     */
+    private final CRC32 crc;
+
+    public CompressingOutputStream(OutputStream out, ContentEncoding encoding, DeflaterPool pool) throws IOException {
+        this.out = out;
+        this.encoding = encoding;
+        this.pool = pool;
+        this.deflater = pool.acquire();
+        this.buffer = BUFFER_POOL.acquire();
+        if (encoding.isNowrap()) {
+            this.crc = new CRC32();
+            out.write(GZIP_HEADER);
+        } else {
+            this.crc = null;
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (null == deflater) {
+            throw new IOException("压缩输出流已结束");
+        }
+        if (0 == len) {
+            return;
+        }
+        if (null != crc) {
+            crc.update(b, off, len);
+        }
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            deflate();
+        }
+    }
+
+    /**
+     * 写出剩余数据和gzip尾, 归还Deflater和缓冲
+     */
+    public void finish() throws IOException {
+        if (null == deflater) {
+            return;
+        }
+        try {
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate();
+            }
+            if (null != crc) {
+                writeInt((int) crc.getValue());
+                writeInt((int) deflater.getBytesRead());
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * 放弃输出: 不写出剩余数据和gzip尾, 归还Deflater和缓冲
+     */
+    public void abort() {
+        if (null != deflater) {
+            release();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    public ContentEncoding getEncoding() {
+        return encoding;
+    }
+
+    private void release() {
+        pool.release(deflater);
+        BUFFER_POOL.release(buffer);
+        deflater = null;
+        buffer = null;
+    }
+
+    private void deflate() throws IOException {
+        int n = deflater.deflate(buffer, 0, buffer.length);
+        if (n > 0) {
+            out.write(buffer, 0, n);
+        }
+    }
+
+    /**
+     * 小端写出int
+     */
+    private void writeInt(int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >> 8) & 0xff);
+        out.write((value >> 16) & 0xff);
+        out.write((value >> 24) & 0xff);
+    }
+}
@@ -0,0 +1,120 @@
+package com.murongshian.mvc.compress;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * 响应压缩配置
+ * 由框架的渲染器(ResponseBodyStream)使用: 请求头Accept-Encoding接受gzip或deflate, 响应类型在白名单中,
+ * 且响应体不小于最小长度时压缩; 每种编码一个Deflater池
+ */
+public class Compression {
+
+    /**
+     * 默认压缩的响应类型
+     */
+    public static final String[] DEFAULT_MIME_TYPES = {"application/json", "application/x-doodle-binary",
+            "application/javascript", "application/xml", "text/html", "text/plain", "text/css", "text/xml"};
+
+    /**
+     * 最小压缩长度(字节)
+     */
+    private final int minSize;
+
+    /**
+     * 压缩的响应类型, 不含参数
+     */
+    private final Set<String> mimeTypes;
+
+    private final DeflaterPool gzipPool;
+
+    private final DeflaterPool deflatePool;
+
+    /**
+     * 最小长度1KB, 默认压缩级别, 默认响应类型
+     */
+    public Compression() {
+        this(1024, Deflater.DEFAULT_COMPRESSION, DEFAULT_MIME_TYPES);
+    }
+
+    /**
+     * @param minSize   最小压缩长度(字节)
+     * @param level     压缩级别, 0-9或Deflater.DEFAULT_COMPRESSION
+     * @param mimeTypes 压缩的响应类型
+     */
+    public Compression(int minSize, int level, String... mimeTypes) {
+        this.minSize = minSize;
+        this.mimeTypes = new HashSet<>(Arrays.asList(mimeTypes));
+        int maxPooled = Runtime.getRuntime().availableProcessors() * 4;
+        this.gzipPool = new DeflaterPool(level, true, maxPooled);
+        this.deflatePool = new DeflaterPool(level, false, maxPooled);
+    }
+
+    /**
+     * 按Accept-Encoding选择编码, gzip优先, q=0表示不接受
+     *
+     * @return 都不接受时返回null
+     */
+    public ContentEncoding negotiate(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (null == acceptEncoding || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        boolean gzip = false;
+        boolean deflate = false;
+        for (String item : acceptEncoding.split(",")) {
+            int semicolon = item.indexOf(';');
+            String coding = (semicolon < 0 ? item : item.substring(0, semicolon)).trim().toLowerCase();
+            if (semicolon >= 0 && isZeroQuality(item.substring(semicolon + 1))) {
+                continue;
+            }
+            if ("gzip".equals(coding) || "*".equals(coding)) {
+                gzip = true;
+            } else if ("deflate".equals(coding)) {
+                deflate = true;
+            }
+        }
+        return gzip ? ContentEncoding.GZIP : deflate ? ContentEncoding.DEFLATE : null;
+    }
+
+    /**
+     * 响应类型是否在白名单中
+     */
+    public boolean isCompressible(String contentType) {
+        if (null == contentType) {
+            return false;
+        }
+        int semicolon = contentType.indexOf(';');
+        return mimeTypes.contains((semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim().toLowerCase());
+    }
+
+    /**
+     * 创建压缩输出流
+     */
+    public CompressingOutputStream compress(OutputStream out, ContentEncoding encoding) throws IOException {
+        return new CompressingOutputStream(out, encoding, ContentEncoding.GZIP == encoding ? gzipPool : deflatePool);
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    private static boolean isZeroQuality(String params) {
+        for (String param : params.split(";")) {
+            String p = param.trim();
+            if (p.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(p.substring(2).trim()) <= 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
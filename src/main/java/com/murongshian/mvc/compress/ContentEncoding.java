@@ -0,0 +1,39 @@
+package com.murongshian.mvc.compress;
+
+/**
+ * 支持的压缩编码
+ */
+public enum ContentEncoding {
+    /**
+     * gzip: deflate数据加gzip头和CRC32尾
+     */
+    GZIP("gzip", true),
+
+    /**
+     * deflate: zlib格式
+     */
+    DEFLATE("deflate", false);
+
+    /**
+     * Content-Encoding的值
+     */
+    private final String value;
+
+    /**
+     * Deflater是否不带zlib头尾
+     */
+    private final boolean nowrap;
+
+    ContentEncoding(String value, boolean nowrap) {
+        this.value = value;
+        this.nowrap = nowrap;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isNowrap() {
+        return nowrap;
+    }
+}
@@ -0,0 +1,49 @@
+package com.murongshian.mvc.compress;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Deflater池
+ * Deflater持有native的zlib状态, 创建和end()的开销远大于reset(), 用完归还后给下一个响应复用
+ * 池中没有可用实例时直接新建, 池满时归还的实例直接end()
+ */
+public final class DeflaterPool {
+
+    /**
+     * 压缩级别
+     */
+    private final int level;
+
+    /**
+     * 是否不带zlib头尾
+     */
+    private final boolean nowrap;
+
+    private final BlockingQueue<Deflater> deflaters;
+
+    public DeflaterPool(int level, boolean nowrap, int maxPooled) {
+        this.level = level;
+        this.nowrap = nowrap;
+        this.deflaters = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /**
+     * 取用Deflater
+     */
+    public Deflater acquire() {
+        Deflater deflater = deflaters.poll();
+        return null == deflater ? new Deflater(level, nowrap) : deflater;
+    }
+
+    /**
+     * 归还Deflater
+     */
+    public void release(Deflater deflater) {
+        deflater.reset();
+        if (!deflaters.offer(deflater)) {
+            deflater.end();
+        }
+    }
+}
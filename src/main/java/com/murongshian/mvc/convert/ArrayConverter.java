@@ -0,0 +1,60 @@
+package com.murongshian.mvc.convert;
+
+import java.lang.reflect.Array;
+
+/**
+ * 数组转换器
+ * 单个字符串按逗号分隔, 多值参数逐个转换; 基本类型数组直接写入, 不装箱
+ */
+public class ArrayConverter implements Converter<Object> {
+
+    /**
+     * 元素类型
+     */
+    private final Class<?> componentType;
+
+    /**
+     * 元素转换器
+     */
+    private final Converter<?> componentConverter;
+
+    /**
+     * 基本类型元素转换器, 元素不是基本类型时为null
+     */
+    private final PrimitiveConverter primitiveConverter;
+
+    public ArrayConverter(Class<?> componentType, Converter<?> componentConverter) {
+        this.componentType = componentType;
+        this.componentConverter = componentConverter;
+        this.primitiveConverter = componentType.isPrimitive() ? PrimitiveConverter.of(componentType) : null;
+    }
+
+    @Override
+    public Object convert(String value) {
+        return convert(value.split(","));
+    }
+
+    /**
+     * 转换多值参数
+     *
+     * @param values 字符串值
+     * @return 数组
+     */
+    public Object convert(String[] values) {
+        if (componentType == String.class) {
+            return values;
+        }
+        Object array = Array.newInstance(componentType, values.length);
+        if (null != primitiveConverter) {
+            for (int i = 0; i < values.length; i++) {
+                primitiveConverter.setElement(array, i, values[i]);
+            }
+        } else {
+            Object[] objects = (Object[]) array;
+            for (int i = 0; i < values.length; i++) {
+                objects[i] = componentConverter.convert(values[i]);
+            }
+        }
+        return array;
+    }
+}
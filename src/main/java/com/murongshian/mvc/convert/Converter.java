@@ -0,0 +1,17 @@
+package com.murongshian.mvc.convert;
+
+/**
+ * 类型转换器 SPI
+ * 将请求中的字符串转换为目标类型, 可以通过ConverterRegistry注册, 也可以作为Bean(如@Component)被自动注册
+ *
+ * @param <T> 目标类型
+ */
+public interface Converter<T> {
+    /**
+     * 转换
+     *
+     * @param value 非空字符串
+     * @return 转换后的值
+     */
+    T convert(String value);
+}
@@ -0,0 +1,252 @@
+package com.murongshian.mvc.convert;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类型转换器注册中心
+ * 注册路由时按参数类型查找一次转换器并保存在参数解析器中, 请求时不再查找
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public final class ConverterRegistry {
+
+    /**
+     * 目标类型和转换器关系map, 枚举和数组的转换器在第一次查找时创建
+     */
+    private final Map<Class<?>, Converter<?>> converterMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取转换器注册中心实例
+     *
+     * @return ConverterRegistry
+     */
+    public static ConverterRegistry getInstance() {
+        return RegistryHolder.HOLDER.instance;
+    }
+
+    /**
+     * 注册转换器, 会覆盖同类型的内置转换器
+     *
+     * @param type      目标类型
+     * @param converter 转换器
+     * @param <T>       目标类型
+     */
+    public <T> void register(Class<T> type, Converter<? extends T> converter) {
+        converterMap.put(type, converter);
+    }
+
+    /**
+     * 注册转换器, 目标类型取自Converter的泛型参数
+     *
+     * @param converter 转换器
+     */
+    public void register(Converter<?> converter) {
+        Class<?> type = resolveTargetType(converter.getClass());
+        if (null == type) {
+            throw new RuntimeException("无法确定转换器的目标类型: " + converter.getClass().getName());
+        }
+        converterMap.put(type, converter);
+    }
+
+    /**
+     * 获取转换器
+     *
+     * @param type 目标类型
+     * @return 转换器, 不支持该类型时返回null
+     */
+    public Converter<?> getConverter(Class<?> type) {
+        Converter<?> converter = converterMap.get(type);
+        if (null != converter) {
+            return converter;
+        }
+        if (type.isEnum()) {
+            converter = new EnumConverter((Class<? extends Enum>) type);
+        } else if (type.isArray()) {
+            Converter<?> componentConverter = getConverter(type.getComponentType());
+            if (null == componentConverter) {
+                return null;
+            }
+            converter = new ArrayConverter(type.getComponentType(), componentConverter);
+        } else {
+            return null;
+        }
+        converterMap.put(type, converter);
+        return converter;
+    }
+
+    /**
+     * 是否支持该类型
+     *
+     * @param type 目标类型
+     * @return 是否有对应的转换器
+     */
+    public boolean supports(Class<?> type) {
+        return null != getConverter(type);
+    }
+
+    /**
+     * 从实现类的泛型接口中获取Converter的类型参数
+     */
+    private static Class<?> resolveTargetType(Class<?> converterClass) {
+        for (Class<?> clz = converterClass; null != clz && clz != Object.class; clz = clz.getSuperclass()) {
+            for (Type type : clz.getGenericInterfaces()) {
+                if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == Converter.class) {
+                    Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+                    if (argument instanceof Class) {
+                        return (Class<?>) argument;
+                    }
+                    if (argument instanceof ParameterizedType) {
+                        return (Class<?>) ((ParameterizedType) argument).getRawType();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 注册内置转换器
+     */
+    private void registerDefaults() {
+        for (PrimitiveConverter converter : PrimitiveConverter.values()) {
+            converterMap.put(converter.getPrimitiveType(), converter);
+            converterMap.put(converter.getWrapperType(), converter);
+        }
+        converterMap.put(String.class, new StringConverter());
+        converterMap.put(BigDecimal.class, new BigDecimalConverter());
+        converterMap.put(BigInteger.class, new BigIntegerConverter());
+        converterMap.put(UUID.class, new UuidConverter());
+        converterMap.put(LocalDate.class, new LocalDateConverter());
+        converterMap.put(LocalTime.class, new LocalTimeConverter());
+        converterMap.put(LocalDateTime.class, new LocalDateTimeConverter());
+        converterMap.put(OffsetDateTime.class, new OffsetDateTimeConverter());
+        converterMap.put(ZonedDateTime.class, new ZonedDateTimeConverter());
+        converterMap.put(Instant.class, new InstantConverter());
+        converterMap.put(Duration.class, new DurationConverter());
+    }
+
+    private static class StringConverter implements Converter<String> {
+        @Override
+        public String convert(String value) {
+            return value;
+        }
+    }
+
+    private static class BigDecimalConverter implements Converter<BigDecimal> {
+        @Override
+        public BigDecimal convert(String value) {
+            return new BigDecimal(value.trim());
+        }
+    }
+
+    private static class BigIntegerConverter implements Converter<BigInteger> {
+        @Override
+        public BigInteger convert(String value) {
+            return new BigInteger(value.trim());
+        }
+    }
+
+    private static class UuidConverter implements Converter<UUID> {
+        @Override
+        public UUID convert(String value) {
+            return UUID.fromString(value.trim());
+        }
+    }
+
+    private static class LocalDateConverter implements Converter<LocalDate> {
+        @Override
+        public LocalDate convert(String value) {
+            return LocalDate.parse(value.trim());
+        }
+    }
+
+    private static class LocalTimeConverter implements Converter<LocalTime> {
+        @Override
+        public LocalTime convert(String value) {
+            return LocalTime.parse(value.trim());
+        }
+    }
+
+    /**
+     * 同时支持ISO格式和yyyy-MM-dd HH:mm:ss格式
+     */
+    private static class LocalDateTimeConverter implements Converter<LocalDateTime> {
+        @Override
+        public LocalDateTime convert(String value) {
+            value = value.trim();
+            if (value.length() > 10 && value.charAt(10) == ' ') {
+                value = value.substring(0, 10) + 'T' + value.substring(11);
+            }
+            return LocalDateTime.parse(value);
+        }
+    }
+
+    private static class OffsetDateTimeConverter implements Converter<OffsetDateTime> {
+        @Override
+        public OffsetDateTime convert(String value) {
+            return OffsetDateTime.parse(value.trim());
+        }
+    }
+
+    private static class ZonedDateTimeConverter implements Converter<ZonedDateTime> {
+        @Override
+        public ZonedDateTime convert(String value) {
+            return ZonedDateTime.parse(value.trim());
+        }
+    }
+
+    /**
+     * 同时支持ISO格式和毫秒时间戳
+     */
+    private static class InstantConverter implements Converter<Instant> {
+        @Override
+        public Instant convert(String value) {
+            value = value.trim();
+            if (!value.isEmpty() && isDigits(value)) {
+                return Instant.ofEpochMilli(Long.parseLong(value));
+            }
+            return Instant.parse(value);
+        }
+
+        private static boolean isDigits(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if (!Character.isDigit(value.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class DurationConverter implements Converter<Duration> {
+        @Override
+        public Duration convert(String value) {
+            return Duration.parse(value.trim());
+        }
+    }
+
+    private enum RegistryHolder {
+        HOLDER;
+        private ConverterRegistry instance;
+
+        RegistryHolder() {
+            instance = new ConverterRegistry();
+            instance.registerDefaults();
+        }
+    }
+
+    private ConverterRegistry() {
+    }
+}
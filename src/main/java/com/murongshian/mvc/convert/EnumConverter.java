@@ -0,0 +1,39 @@
+package com.murongshian.mvc.convert;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 枚举转换器
+ * 创建时建立名称索引, 先按原名匹配, 再按忽略大小写匹配
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class EnumConverter implements Converter<Enum> {
+
+    private final Class<? extends Enum> enumType;
+
+    private final Map<String, Enum> constants = new HashMap<>();
+
+    private final Map<String, Enum> upperCaseConstants = new HashMap<>();
+
+    public EnumConverter(Class<? extends Enum> enumType) {
+        this.enumType = enumType;
+        for (Enum constant : enumType.getEnumConstants()) {
+            constants.put(constant.name(), constant);
+            upperCaseConstants.put(constant.name().toUpperCase(Locale.ROOT), constant);
+        }
+    }
+
+    @Override
+    public Enum convert(String value) {
+        Enum constant = constants.get(value);
+        if (null == constant) {
+            constant = upperCaseConstants.get(value.trim().toUpperCase(Locale.ROOT));
+        }
+        if (null == constant) {
+            throw new IllegalArgumentException("枚举" + enumType.getName() + "没有值: " + value);
+        }
+        return constant;
+    }
+}
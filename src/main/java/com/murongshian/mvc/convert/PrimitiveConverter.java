@@ -0,0 +1,211 @@
+package com.murongshian.mvc.convert;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * 基本类型转换器
+ * 除了返回包装类型的convert外, 还提供直接写入基本类型数组和调用基本类型setter的方法, 这两种情况不会装箱
+ */
+public enum PrimitiveConverter implements Converter<Object> {
+
+    INT(int.class, Integer.class) {
+        @Override
+        public Object convert(String value) {
+            return Integer.valueOf(Integer.parseInt(value.trim()));
+        }
+
+        @Override
+        public void setElement(Object array, int index, String value) {
+            ((int[]) array)[index] = Integer.parseInt(value.trim());
+        }
+
+        @Override
+        public void invokeSetter(MethodHandle setter, Object target, String value) throws Throwable {
+            setter.invokeExact(target, Integer.parseInt(value.trim()));
+        }
+    },
+
+    LONG(long.class, Long.class) {
+        @Override
+        public Object convert(String value) {
+            return Long.valueOf(Long.parseLong(value.trim()));
+        }
+
+        @Override
+        public void setElement(Object array, int index, String value) {
+            ((long[]) array)[index] = Long.parseLong(value.trim());
+        }
+
+        @Override
+        public void invokeSetter(MethodHandle setter, Object target, String value) throws Throwable {
+            setter.invokeExact(target, Long.parseLong(value.trim()));
+        }
+    },
+
+    DOUBLE(double.class, Double.class) {
+        @Override
+        public Object convert(String value) {
+            return Double.valueOf(Double.parseDouble(value));
+        }
+
+        @Override
+        public void setElement(Object array, int index, String value) {
+            ((double[]) array)[index] = Double.parseDouble(value);
+        }
+
+        @Override
+        public void invokeSetter(MethodHandle setter, Object target, String value) throws Throwable {
+            setter.invokeExact(target, Double.parseDouble(value));
+        }
+    },
+
+    FLOAT(float.class, Float.class) {
+        @Override
+        public Object convert(String value) {
+            return Float.valueOf(Float.parseFloat(value));
+        }
+
+        @Override
+        public void setElement(Object array, int index, String value) {
+            ((float[]) array)[index] = Float.parseFloat(value);
+        }
+
+        @Override
+        public void invokeSetter(MethodHandle setter, Object target, String value) throws Throwable {
+            setter.invokeExact(target, Float.parseFloat(value));
+        }
+    },
+
+    SHORT(short.class, Short.class) {
+        @Override
+        public Object convert(String value) {
+            return Short.valueOf(Short.parseShort(value.trim()));
+        }
+
+        @Override
+        public void setElement(Object array, int index, String value) {
+            ((short[]) array)[index] = Short.parseShort(value.trim());
+        }
+
+        @Override
+        public void invokeSetter(MethodHandle setter, Object target, String value) throws Throwable {
+            setter.invokeExact(target, Short.parseShort(value.trim()));
+        }
+    },
+
+    BYTE(byte.class, Byte.class) {
+        @Override
+        public Object convert(String value) {
+            return Byte.valueOf(Byte.parseByte(value.trim()));
+        }
+
+        @Override
+        public void setElement(Object array, int index, String value) {
+            ((byte[]) array)[index] = Byte.parseByte(value.trim());
+        }
+
+        @Override
+        public void invokeSetter(MethodHandle setter, Object target, String value) throws Throwable {
+            setter.invokeExact(target, Byte.parseByte(value.trim()));
+        }
+    },
+
+    BOOLEAN(boolean.class, Boolean.class) {
+        @Override
+        public Object convert(String value) {
+            return Boolean.valueOf(parseBoolean(value));
+        }
+
+        @Override
+        public void setElement(Object array, int index, String value) {
+            ((boolean[]) array)[index] = parseBoolean(value);
+        }
+
+        @Override
+        public void invokeSetter(MethodHandle setter, Object target, String value) throws Throwable {
+            setter.invokeExact(target, parseBoolean(value));
+        }
+    },
+
+    CHAR(char.class, Character.class) {
+        @Override
+        public Object convert(String value) {
+            return Character.valueOf(value.charAt(0));
+        }
+
+        @Override
+        public void setElement(Object array, int index, String value) {
+            ((char[]) array)[index] = value.charAt(0);
+        }
+
+        @Override
+        public void invokeSetter(MethodHandle setter, Object target, String value) throws Throwable {
+            setter.invokeExact(target, value.charAt(0));
+        }
+    };
+
+    /**
+     * 基本类型
+     */
+    private final Class<?> primitiveType;
+
+    /**
+     * 包装类型
+     */
+    private final Class<?> wrapperType;
+
+    PrimitiveConverter(Class<?> primitiveType, Class<?> wrapperType) {
+        this.primitiveType = primitiveType;
+        this.wrapperType = wrapperType;
+    }
+
+    /**
+     * 写入基本类型数组
+     *
+     * @param array 基本类型数组
+     * @param index 下标
+     * @param value 字符串值
+     */
+    public abstract void setElement(Object array, int index, String value);
+
+    /**
+     * 调用参数为基本类型的setter
+     *
+     * @param setter 类型为(Object, 基本类型)void的方法句柄
+     * @param target 目标对象
+     * @param value  字符串值
+     * @throws Throwable setter抛出的异常
+     */
+    public abstract void invokeSetter(MethodHandle setter, Object target, String value) throws Throwable;
+
+    public Class<?> getPrimitiveType() {
+        return primitiveType;
+    }
+
+    public Class<?> getWrapperType() {
+        return wrapperType;
+    }
+
+    /**
+     * 获取基本类型对应的转换器
+     *
+     * @param type 基本类型或包装类型
+     * @return 转换器, 不是基本类型时返回null
+     */
+    public static PrimitiveConverter of(Class<?> type) {
+        for (PrimitiveConverter converter : values()) {
+            if (converter.primitiveType == type || converter.wrapperType == type) {
+                return converter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 除true外也接受1/on/yes, 与html表单的checkbox取值保持一致
+     */
+    private static boolean parseBoolean(String value) {
+        return "true".equalsIgnoreCase(value) || "1".equals(value) || "on".equalsIgnoreCase(value)
+                || "yes".equalsIgnoreCase(value);
+    }
+}
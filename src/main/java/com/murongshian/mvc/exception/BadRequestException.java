@@ -0,0 +1,13 @@
+package com.murongshian.mvc.exception;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 400 请求参数错误
+ */
+public class BadRequestException extends HttpStatusException {
+
+    public BadRequestException(String message) {
+        super(HttpServletResponse.SC_BAD_REQUEST, message);
+    }
+}
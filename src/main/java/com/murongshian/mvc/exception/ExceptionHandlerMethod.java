@@ -0,0 +1,126 @@
+package com.murongshian.mvc.exception;
+
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.annotation.ExceptionHandler;
+import com.murongshian.mvc.annotation.ResponseBody;
+import com.murongshian.mvc.invoker.ControllerInvoker;
+import com.murongshian.mvc.invoker.MethodHandleInvoker;
+import com.murongshian.mvc.render.DefaultRender;
+import com.murongshian.mvc.render.JsonRender;
+import com.murongshian.mvc.render.Render;
+import com.murongshian.mvc.render.ViewRender;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+
+/**
+ * @ExceptionHandler方法
+ * 参数来源、状态码和渲染器在启动时确定
+ */
+public class ExceptionHandlerMethod {
+
+    private static final int ARG_EXCEPTION = 0;
+    private static final int ARG_CHAIN = 1;
+    private static final int ARG_REQUEST = 2;
+    private static final int ARG_RESPONSE = 3;
+    private static final int ARG_NULL = 4;
+
+    /**
+     * 方法
+     */
+    private final Method method;
+
+    /**
+     * 绑定了实例的方法调用器
+     */
+    private final ControllerInvoker invoker;
+
+    /**
+     * 每个参数的来源
+     */
+    private final int[] argSources;
+
+    /**
+     * 注解中的状态码, 为0时由异常决定
+     */
+    private final int status;
+
+    /**
+     * 返回值的渲染器
+     */
+    private final Render render;
+
+    public ExceptionHandlerMethod(Object bean, Method method) {
+        this.method = method;
+        this.invoker = new MethodHandleInvoker(bean, method);
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        this.argSources = new int[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> type = parameterTypes[i];
+            if (Throwable.class.isAssignableFrom(type)) {
+                argSources[i] = ARG_EXCEPTION;
+            } else if (RequestHandlerChain.class == type) {
+                argSources[i] = ARG_CHAIN;
+            } else if (HttpServletRequest.class == type) {
+                argSources[i] = ARG_REQUEST;
+            } else if (HttpServletResponse.class == type) {
+                argSources[i] = ARG_RESPONSE;
+            } else {
+                argSources[i] = ARG_NULL;
+            }
+        }
+        this.status = method.getAnnotation(ExceptionHandler.class).status();
+        this.render = method.isAnnotationPresent(ResponseBody.class) ? JsonRender.of(method) : ViewRender.INSTANCE;
+    }
+
+    /**
+     * 执行异常处理方法, 并设置响应状态码和渲染器
+     */
+    public void handle(RequestHandlerChain handlerChain, Throwable ex) throws Exception {
+        Object[] args = new Object[argSources.length];
+        for (int i = 0; i < args.length; i++) {
+            switch (argSources[i]) {
+                case ARG_EXCEPTION:
+                    args[i] = ex;
+                    break;
+                case ARG_CHAIN:
+                    args[i] = handlerChain;
+                    break;
+                case ARG_REQUEST:
+                    args[i] = handlerChain.getRequest();
+                    break;
+                case ARG_RESPONSE:
+                    args[i] = handlerChain.getResponse();
+                    break;
+                default:
+                    break;
+            }
+        }
+        Object result;
+        try {
+            result = invoker.invoke(args);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+        if (0 != status) {
+            handlerChain.setResponseStatus(status);
+        } else if (ex instanceof HttpStatusException) {
+            handlerChain.setResponseStatus(((HttpStatusException) ex).getStatus());
+        } else {
+            handlerChain.setResponseStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+        if (null == result) {
+            handlerChain.setRender(DefaultRender.INSTANCE);
+        } else {
+            handlerChain.setResult(result);
+            handlerChain.setRender(render);
+        }
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+}
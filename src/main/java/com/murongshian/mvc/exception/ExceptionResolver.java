@@ -0,0 +1,114 @@
+package com.murongshian.mvc.exception;
+
+import com.murongshian.mvc.annotation.ExceptionHandler;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 异常处理方法查找表
+ * 每个controller类一个, 启动时登记controller和@ControllerAdvice中声明的异常类型;
+ * 查找时沿异常的父类向上找最近的声明, controller中的优先, 结果按异常类型缓存, 同一类型只查找一次
+ */
+public class ExceptionResolver {
+
+    /**
+     * 没有任何异常处理方法时共用
+     */
+    public static final ExceptionResolver EMPTY = new ExceptionResolver(Collections.emptyMap(), Collections.emptyMap());
+
+    /**
+     * 缓存中表示没有处理方法
+     */
+    private static final Object NO_HANDLER = new Object();
+
+    /**
+     * controller中声明的处理方法
+     */
+    private final Map<Class<?>, ExceptionHandlerMethod> localHandlers;
+
+    /**
+     * @ControllerAdvice中声明的处理方法
+     */
+    private final Map<Class<?>, ExceptionHandlerMethod> globalHandlers;
+
+    /**
+     * 以异常类型为key的查找结果缓存
+     */
+    private final Map<Class<?>, Object> cache = new ConcurrentHashMap<>();
+
+    public ExceptionResolver(Map<Class<?>, ExceptionHandlerMethod> localHandlers,
+                             Map<Class<?>, ExceptionHandlerMethod> globalHandlers) {
+        this.localHandlers = localHandlers;
+        this.globalHandlers = globalHandlers;
+    }
+
+    /**
+     * 查找异常的处理方法
+     *
+     * @param ex 异常
+     * @return 处理方法, 没有时返回null
+     */
+    public ExceptionHandlerMethod resolve(Throwable ex) {
+        if (localHandlers.isEmpty() && globalHandlers.isEmpty()) {
+            return null;
+        }
+        Class<?> type = ex.getClass();
+        Object cached = cache.get(type);
+        if (null == cached) {
+            ExceptionHandlerMethod handlerMethod = find(localHandlers, type);
+            if (null == handlerMethod) {
+                handlerMethod = find(globalHandlers, type);
+            }
+            cached = null == handlerMethod ? NO_HANDLER : handlerMethod;
+            cache.put(type, cached);
+        }
+        return NO_HANDLER == cached ? null : (ExceptionHandlerMethod) cached;
+    }
+
+    private static ExceptionHandlerMethod find(Map<Class<?>, ExceptionHandlerMethod> handlers, Class<?> type) {
+        for (Class<?> clz = type; null != clz && Object.class != clz; clz = clz.getSuperclass()) {
+            ExceptionHandlerMethod handlerMethod = handlers.get(clz);
+            if (null != handlerMethod) {
+                return handlerMethod;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 收集类中的@ExceptionHandler方法
+     *
+     * @param clz  声明异常处理方法的类
+     * @param bean 类的实例, 可以是代理
+     * @return 以异常类型为key的处理方法
+     */
+    public static Map<Class<?>, ExceptionHandlerMethod> collect(Class<?> clz, Object bean) {
+        Map<Class<?>, ExceptionHandlerMethod> handlers = new HashMap<>();
+        for (Method method : clz.getDeclaredMethods()) {
+            ExceptionHandler exceptionHandler = method.getAnnotation(ExceptionHandler.class);
+            if (null == exceptionHandler) {
+                continue;
+            }
+            Class<?>[] types = exceptionHandler.value();
+            if (0 == types.length) {
+                types = Arrays.stream(method.getParameterTypes())
+                        .filter(Throwable.class::isAssignableFrom).toArray(Class<?>[]::new);
+            }
+            if (0 == types.length) {
+                throw new RuntimeException("@ExceptionHandler未指定异常类型: " + method);
+            }
+            ExceptionHandlerMethod handlerMethod = new ExceptionHandlerMethod(bean, method);
+            for (Class<?> type : types) {
+                if (null != handlers.put(type, handlerMethod)) {
+                    throw new RuntimeException("异常类型重复处理: " + type.getName() + " " + method);
+                }
+            }
+        }
+        return handlers;
+    }
+}
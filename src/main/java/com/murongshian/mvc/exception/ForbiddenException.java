@@ -0,0 +1,13 @@
+package com.murongshian.mvc.exception;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 403 无权限
+ */
+public class ForbiddenException extends HttpStatusException {
+
+    public ForbiddenException(String message) {
+        super(HttpServletResponse.SC_FORBIDDEN, message);
+    }
+}
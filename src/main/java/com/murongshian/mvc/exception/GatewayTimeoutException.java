@@ -0,0 +1,13 @@
+package com.murongshian.mvc.exception;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 504 请求超过截止时间
+ */
+public class GatewayTimeoutException extends HttpStatusException {
+
+    public GatewayTimeoutException(String message) {
+        super(HttpServletResponse.SC_GATEWAY_TIMEOUT, message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.murongshian.mvc.exception;
+
+/**
+ * 带http状态码的异常
+ * 用于可预期的请求错误, 不生成异常栈, 抛出的开销接近普通对象创建; 没有@ExceptionHandler处理时直接以该状态码响应
+ */
+public class HttpStatusException extends RuntimeException {
+    /**
+     * http状态码
+     */
+    private final int status;
+
+    public HttpStatusException(int status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
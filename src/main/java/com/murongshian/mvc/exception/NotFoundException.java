@@ -0,0 +1,13 @@
+package com.murongshian.mvc.exception;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 404 资源不存在
+ */
+public class NotFoundException extends HttpStatusException {
+
+    public NotFoundException(String message) {
+        super(HttpServletResponse.SC_NOT_FOUND, message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.murongshian.mvc.exception;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 413 请求体过大
+ */
+public class PayloadTooLargeException extends HttpStatusException {
+
+    public PayloadTooLargeException(String message) {
+        super(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, message);
+    }
+}
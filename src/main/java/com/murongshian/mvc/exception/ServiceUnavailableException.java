@@ -0,0 +1,26 @@
+package com.murongshian.mvc.exception;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 503 服务暂不可用
+ */
+public class ServiceUnavailableException extends HttpStatusException {
+    /**
+     * 建议客户端重试的间隔(秒), 不大于0时不设置Retry-After响应头
+     */
+    private final int retryAfter;
+
+    public ServiceUnavailableException(String message) {
+        this(message, 0);
+    }
+
+    public ServiceUnavailableException(String message, int retryAfter) {
+        super(HttpServletResponse.SC_SERVICE_UNAVAILABLE, message);
+        this.retryAfter = retryAfter;
+    }
+
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,13 @@
+package com.murongshian.mvc.exception;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 401 未认证
+ */
+public class UnauthorizedException extends HttpStatusException {
+
+    public UnauthorizedException(String message) {
+        super(HttpServletResponse.SC_UNAUTHORIZED, message);
+    }
+}
@@ -0,0 +1,58 @@
+package com.murongshian.mvc.executor;
+
+import com.murongshian.mvc.annotation.ExecuteOn;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * controller执行器注册中心
+ * 启动时按@ExecuteOn创建执行器, 同名的共用一个, 停止时统一关闭
+ */
+public final class ExecutorRegistry {
+
+    /**
+     * 执行器名称和执行器关系map
+     */
+    private final Map<String, ExecutorService> executorMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取执行器注册中心实例
+     *
+     * @return ExecutorRegistry
+     */
+    public static ExecutorRegistry getInstance() {
+        return RegistryHolder.HOLDER.instance;
+    }
+
+    /**
+     * 获取@ExecuteOn对应的执行器, 不存在时创建
+     *
+     * @param executeOn       注解
+     * @param controllerClass 注解所在的controller类
+     * @return 执行器
+     */
+    public ExecutorService getExecutor(ExecuteOn executeOn, Class<?> controllerClass) {
+        String name = executeOn.name().isEmpty() ? controllerClass.getName() : executeOn.name();
+        return executorMap.computeIfAbsent(name,
+                key -> executeOn.value().create(key, executeOn.threads(), executeOn.queueSize()));
+    }
+
+    /**
+     * 关闭所有执行器, 已提交的任务继续执行完
+     */
+    public void shutdown() {
+        executorMap.values().forEach(ExecutorService::shutdown);
+        executorMap.clear();
+    }
+
+    private enum RegistryHolder {
+        HOLDER;
+        private ExecutorRegistry instance;
+
+        RegistryHolder() {
+            instance = new ExecutorRegistry();
+        }
+    }
+}
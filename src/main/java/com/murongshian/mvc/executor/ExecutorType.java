@@ -0,0 +1,87 @@
+package com.murongshian.mvc.executor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * controller执行器类型
+ */
+public enum ExecutorType {
+    /**
+     * 固定线程数、有界队列的线程池, 用于隔离阻塞调用
+     */
+    BOUNDED {
+        @Override
+        public ExecutorService create(String name, int threads, int queueSize) {
+            int size = threads > 0 ? threads : CPUS * 2;
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueSize)), threadFactory(name));
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    },
+
+    /**
+     * ForkJoinPool, 用于cpu密集的计算
+     */
+    FORK_JOIN {
+        @Override
+        public ExecutorService create(String name, int threads, int queueSize) {
+            AtomicInteger counter = new AtomicInteger();
+            return new ForkJoinPool(threads > 0 ? threads : CPUS, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("doodle-" + name + "-" + counter.incrementAndGet());
+                return thread;
+            }, null, true);
+        }
+    },
+
+    /**
+     * 每个任务一个虚拟线程, 需要JDK21及以上, 不支持时退化为BOUNDED
+     */
+    VIRTUAL {
+        @Override
+        public ExecutorService create(String name, int threads, int queueSize) {
+            try {
+                // 通过反射调用, 保持Java8可编译
+                Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("当前JDK不支持虚拟线程, 使用BOUNDED执行器: " + name);
+                return BOUNDED.create(name, threads, queueSize);
+            }
+        }
+    };
+
+    private static final int CPUS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 创建执行器
+     *
+     * @param name      执行器名称, 用于线程名
+     * @param threads   线程数, 为0时使用默认值
+     * @param queueSize 等待队列长度
+     * @return 执行器
+     */
+    public abstract ExecutorService create(String name, int threads, int queueSize);
+
+    /**
+     * 命名的守护线程
+     */
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "doodle-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.murongshian.mvc.executor;
+
+/**
+ * 请求优先级, 按从高到低排列
+ */
+public enum Priority {
+    /**
+     * 交互请求
+     */
+    INTERACTIVE,
+
+    /**
+     * 批处理请求
+     */
+    BATCH,
+
+    /**
+     * 后台请求
+     */
+    BACKGROUND;
+
+    /**
+     * 解析请求头中的优先级, 忽略大小写
+     *
+     * @param value 请求头的值
+     * @return 优先级, 不支持的值返回null
+     */
+    public static Priority resolve(String value) {
+        if (null == value) {
+            return null;
+        }
+        switch (value.trim().toLowerCase()) {
+            case "interactive":
+                return INTERACTIVE;
+            case "batch":
+                return BATCH;
+            case "background":
+                return BACKGROUND;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.murongshian.mvc.executor;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按优先级调度的线程池
+ * 每个优先级一个有界队列, 工作线程优先取高优先级的任务;
+ * 低优先级队列头部的任务等待超过maxWait时优先执行等待最久的一个, 避免低优先级请求饿死; 取消的任务立即出队
+ */
+public class PriorityScheduler {
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    /**
+     * 每个优先级的等待队列, 以Priority.ordinal()为下标
+     */
+    private final ArrayDeque<Task>[] queues;
+
+    /**
+     * 每个队列的容量
+     */
+    private final int queueCapacity;
+
+    /**
+     * 低优先级任务的最长等待时间(纳秒)
+     */
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Thread[] workers;
+
+    private volatile boolean shutdown;
+
+    /**
+     * @param threads       工作线程数
+     * @param queueCapacity 每个优先级的队列容量, 队列满时拒绝
+     * @param maxWaitMs     低优先级任务的最长等待时间(毫秒)
+     */
+    @SuppressWarnings("unchecked")
+    public PriorityScheduler(int threads, int queueCapacity, long maxWaitMs) {
+        this.queues = new ArrayDeque[PRIORITIES.length];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+        this.queueCapacity = queueCapacity;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(this::work, "doodle-priority-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param priority 优先级
+     * @param runnable 任务
+     * @return 可取消的任务
+     * @throws RejectedExecutionException 队列已满或已关闭
+     */
+    public Future<?> submit(Priority priority, Runnable runnable) {
+        ArrayDeque<Task> queue = queues[priority.ordinal()];
+        Task task = new Task(runnable, queue);
+        lock.lock();
+        try {
+            if (shutdown || queue.size() >= queueCapacity) {
+                throw new RejectedExecutionException("优先级队列已满: " + priority);
+            }
+            queue.addLast(task);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return task;
+    }
+
+    /**
+     * 关闭调度器, 不再接收任务, 工作线程结束
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    private void work() {
+        while (!shutdown) {
+            Task task;
+            try {
+                task = take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            task.run();
+            // 清除任务取消时可能留下的中断标记
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * 取出下一个任务: 有等待超时的任务时取等待最久的, 否则取优先级最高的
+     */
+    private Task take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            for (;;) {
+                long now = System.nanoTime();
+                ArrayDeque<Task> highest = null;
+                ArrayDeque<Task> overdue = null;
+                long overdueSince = now;
+                for (ArrayDeque<Task> queue : queues) {
+                    Task head = queue.peekFirst();
+                    if (null == head) {
+                        continue;
+                    }
+                    if (null == highest) {
+                        highest = queue;
+                    }
+                    if (now - head.enqueueNanos > maxWaitNanos && overdueSince - head.enqueueNanos > 0) {
+                        overdue = queue;
+                        overdueSince = head.enqueueNanos;
+                    }
+                }
+                if (null != overdue) {
+                    return overdue.pollFirst();
+                }
+                if (null != highest) {
+                    return highest.pollFirst();
+                }
+                notEmpty.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 记录入队时间的任务
+     * 在队列中被取消(如请求超时)时立即从队列移除, 不再占用队列容量
+     */
+    private final class Task extends FutureTask<Void> {
+        private final long enqueueNanos = System.nanoTime();
+
+        /**
+         * 所在的队列
+         */
+        private final ArrayDeque<Task> queue;
+
+        private Task(Runnable runnable, ArrayDeque<Task> queue) {
+            super(runnable, null);
+            this.queue = queue;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                lock.lock();
+                try {
+                    // 已被工作线程取出时不在队列中
+                    queue.remove(this);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return cancelled;
+        }
+    }
+}
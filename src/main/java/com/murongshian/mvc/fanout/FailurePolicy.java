@@ -0,0 +1,16 @@
+package com.murongshian.mvc.fanout;
+
+/**
+ * 并行调用的失败策略
+ */
+public enum FailurePolicy {
+    /**
+     * 任一调用失败或超时时立即以该异常结束, 取消其余调用; 设置了降级值的调用失败时使用降级值
+     */
+    FAIL_FAST,
+
+    /**
+     * 调用失败或超时时使用降级值(未设置时为null), 其余调用继续执行
+     */
+    BEST_EFFORT
+}
@@ -0,0 +1,128 @@
+package com.murongshian.mvc.fanout;
+
+import com.murongshian.mvc.RequestContext;
+import com.murongshian.mvc.executor.ExecutorType;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 并行调用
+ * 启动时注册到bean容器, 可以通过@Autowired注入, 第一次使用时才创建线程池; 在controller中把互不依赖的service调用并行执行后合并结果:
+ * <pre>
+ * Scatter scatter = fanOut.scatter();
+ * CompletableFuture&lt;User&gt; user = scatter.fork(() -&gt; userService.get(id));
+ * CompletableFuture&lt;List&lt;Order&gt;&gt; orders = scatter.fork(() -&gt; orderService.list(id), Collections.emptyList());
+ * return scatter.gather(() -&gt; new Profile(user.join(), orders.join()));
+ * </pre>
+ * gather返回CompletableFuture, controller直接返回时按异步请求处理, 不占用请求线程; 也可以用await同步等待
+ * 所有调用共用一个截止时间: scatter指定的超时时间与当前请求剩余时间中较早的一个
+ */
+public class FanOut {
+
+    /**
+     * 执行器线程数
+     */
+    private final int threads;
+
+    /**
+     * 执行器等待队列长度
+     */
+    private final int queueSize;
+
+    /**
+     * 并行调用执行器, 第一次并行调用时创建
+     */
+    private volatile ExecutorService executor;
+
+    /**
+     * 截止时间定时器, 与执行器一起创建
+     */
+    private volatile ScheduledThreadPoolExecutor timer;
+
+    /**
+     * 是否已关闭
+     */
+    private boolean closed;
+
+    /**
+     * @param threads   执行器线程数, 为0时使用默认值
+     * @param queueSize 执行器等待队列长度
+     */
+    public FanOut(int threads, int queueSize) {
+        this.threads = threads;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * 开始一组FAIL_FAST的并行调用, 截止时间为当前请求的截止时间
+     *
+     * @return 并行调用组
+     */
+    public Scatter scatter() {
+        return scatter(FailurePolicy.FAIL_FAST, 0);
+    }
+
+    /**
+     * 开始一组并行调用, 截止时间为当前请求的截止时间
+     *
+     * @param policy 失败策略
+     * @return 并行调用组
+     */
+    public Scatter scatter(FailurePolicy policy) {
+        return scatter(policy, 0);
+    }
+
+    /**
+     * 开始一组并行调用
+     *
+     * @param policy        失败策略
+     * @param timeoutMillis 超时时间(毫秒), 不大于0时只使用当前请求的截止时间
+     * @return 并行调用组
+     */
+    public Scatter scatter(FailurePolicy policy, long timeoutMillis) {
+        long timeoutNanos = timeoutMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : Long.MAX_VALUE;
+        RequestContext context = RequestContext.current();
+        if (null != context) {
+            timeoutNanos = Math.min(timeoutNanos, context.getRemainingNanos());
+        }
+        if (null == executor) {
+            start();
+        }
+        return new Scatter(executor, timer, policy, timeoutNanos);
+    }
+
+    /**
+     * 关闭执行器和定时器
+     */
+    public synchronized void shutdown() {
+        closed = true;
+        if (null != executor) {
+            executor.shutdownNow();
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * 创建执行器和定时器, 不使用并行调用的应用不创建线程池; 已关闭时创建后立即关闭, 并行调用被拒绝
+     */
+    private synchronized void start() {
+        if (null != executor) {
+            return;
+        }
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "doodle-fanout-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        timer = scheduler;
+        // 最后赋值执行器, 看到执行器的线程也能看到定时器
+        executor = ExecutorType.BOUNDED.create("fanout", threads, queueSize);
+        if (closed) {
+            executor.shutdownNow();
+            timer.shutdownNow();
+        }
+    }
+}
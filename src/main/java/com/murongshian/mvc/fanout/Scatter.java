@@ -0,0 +1,280 @@
+package com.murongshian.mvc.fanout;
+
+import com.murongshian.mvc.RequestContext;
+import com.murongshian.mvc.exception.GatewayTimeoutException;
+import com.murongshian.mvc.exception.ServiceUnavailableException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 一组并行调用
+ * 由FanOut.scatter()创建, fork提交调用, gather或await合并结果; 同一组调用只能gather一次
+ * fork在执行器线程中执行, 执行时绑定创建时线程的请求上下文
+ */
+public final class Scatter {
+
+    /**
+     * 超过截止时间的调用以此异常结束, 不可变且没有异常栈, 所有调用共用
+     */
+    private static final GatewayTimeoutException DEADLINE_EXCEEDED = new GatewayTimeoutException("并行调用超过截止时间");
+
+    /**
+     * 执行器已满时调用以此异常结束
+     */
+    private static final ServiceUnavailableException EXECUTOR_FULL = new ServiceUnavailableException("并行调用执行器已满", 1);
+
+    /**
+     * 表示没有设置降级值
+     */
+    private static final Object NO_FALLBACK = new Object();
+
+    private final ExecutorService executor;
+
+    private final ScheduledExecutorService timer;
+
+    private final FailurePolicy policy;
+
+    /**
+     * 截止时间(System.nanoTime()), 没有截止时间时为Long.MAX_VALUE
+     */
+    private final long deadlineNanos;
+
+    private final List<Fork<?>> forks = new ArrayList<>();
+
+    /**
+     * FAIL_FAST时第一个失败的原因
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * 合并结果, gather后不为null
+     */
+    private volatile CompletableFuture<?> gathered;
+
+    private ScheduledFuture<?> deadlineTask;
+
+    Scatter(ExecutorService executor, ScheduledExecutorService timer, FailurePolicy policy, long timeoutNanos) {
+        this.executor = executor;
+        this.timer = timer;
+        this.policy = policy;
+        this.deadlineNanos = Long.MAX_VALUE == timeoutNanos ? Long.MAX_VALUE : System.nanoTime() + timeoutNanos;
+    }
+
+    /**
+     * 提交一个调用
+     *
+     * @param call 调用
+     * @return 调用结果
+     */
+    public <T> CompletableFuture<T> fork(Callable<T> call) {
+        return submit(call, NO_FALLBACK);
+    }
+
+    /**
+     * 提交一个带降级值的调用, 调用失败或超时时以降级值完成
+     *
+     * @param call     调用
+     * @param fallback 降级值
+     * @return 调用结果
+     */
+    public <T> CompletableFuture<T> fork(Callable<T> call, T fallback) {
+        return submit(call, fallback);
+    }
+
+    /**
+     * 所有调用完成后在最后完成的线程中合并结果
+     * 返回的CompletableFuture被取消(如异步请求超时)时取消未完成的调用
+     *
+     * @param combiner 合并函数, 其中可以直接join各个fork的结果
+     * @return 合并结果
+     */
+    public synchronized <R> CompletableFuture<R> gather(Supplier<R> combiner) {
+        if (null != gathered) {
+            throw new IllegalStateException("并行调用已合并");
+        }
+        CompletableFuture<R> result = new CompletableFuture<>();
+        gathered = result;
+        Supplier<R> wrapped = RequestContext.wrap(combiner);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[forks.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = forks.get(i).result;
+        }
+        CompletableFuture.allOf(futures).whenComplete((v, ex) -> {
+            if (null != deadlineTask) {
+                deadlineTask.cancel(false);
+            }
+            Throwable cause = failure.get();
+            if (null != cause) {
+                result.completeExceptionally(cause);
+            } else if (null != ex) {
+                result.completeExceptionally(unwrap(ex));
+            } else {
+                try {
+                    result.complete(wrapped.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(unwrap(e));
+                }
+            }
+        });
+        result.whenComplete((v, ex) -> {
+            if (result.isCancelled()) {
+                cancelAll(null);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 同步等待所有调用完成并合并结果
+     *
+     * @param combiner 合并函数
+     * @return 合并结果
+     */
+    public <R> R await(Supplier<R> combiner) {
+        try {
+            return gather(combiner).join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * 同步等待所有调用完成
+     */
+    public void await() {
+        await(() -> null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> CompletableFuture<T> submit(Callable<T> call, Object fallback) {
+        if (null != gathered) {
+            throw new IllegalStateException("并行调用已合并, 不能再提交");
+        }
+        Fork<T> fork = new Fork<>((T) fallback, NO_FALLBACK != fallback);
+        forks.add(fork);
+        if (Long.MAX_VALUE != deadlineNanos && null == deadlineTask) {
+            deadlineTask = timer.schedule(this::expire, deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        if (null != failure.get() || System.nanoTime() - deadlineNanos >= 0) {
+            fail(fork, null != failure.get() ? failure.get() : DEADLINE_EXCEEDED);
+            return fork.result;
+        }
+        Runnable task = RequestContext.wrap(() -> {
+            if (fork.result.isDone()) {
+                return;
+            }
+            try {
+                fork.result.complete(call.call());
+            } catch (Throwable e) {
+                fail(fork, e);
+            }
+        });
+        try {
+            fork.task = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            fail(fork, EXECUTOR_FULL);
+        }
+        return fork.result;
+    }
+
+    /**
+     * 调用失败: 有降级值或BEST_EFFORT时降级, 否则FAIL_FAST结束整组调用
+     */
+    private <T> void fail(Fork<T> fork, Throwable e) {
+        if (fork.hasFallback || FailurePolicy.BEST_EFFORT == policy) {
+            fork.result.complete(fork.hasFallback ? fork.fallback : null);
+            return;
+        }
+        if (fork.result.completeExceptionally(e) && failure.compareAndSet(null, e)) {
+            cancelAll(e);
+        }
+    }
+
+    /**
+     * 到达截止时间, 未完成的调用按超时失败
+     */
+    private void expire() {
+        for (Fork<?> fork : snapshot()) {
+            if (!fork.result.isDone()) {
+                fail(fork, DEADLINE_EXCEEDED);
+                fork.cancel();
+            }
+        }
+    }
+
+    /**
+     * 取消所有未完成的调用
+     *
+     * @param cause 结束原因, 为null时表示合并结果被取消
+     */
+    private void cancelAll(Throwable cause) {
+        for (Fork<?> fork : snapshot()) {
+            if (!fork.result.isDone()) {
+                if (null == cause) {
+                    fork.result.cancel(false);
+                } else {
+                    fork.result.completeExceptionally(cause);
+                }
+                fork.cancel();
+            }
+        }
+    }
+
+    private synchronized List<Fork<?>> snapshot() {
+        return new ArrayList<>(forks);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while (e instanceof CompletionException && null != e.getCause()) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * 单个调用
+     */
+    private static final class Fork<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private final T fallback;
+
+        private final boolean hasFallback;
+
+        private volatile Future<?> task;
+
+        private Fork(T fallback, boolean hasFallback) {
+            this.fallback = fallback;
+            this.hasFallback = hasFallback;
+        }
+
+        /**
+         * 中断正在执行的调用, 排队中的调用不再执行
+         */
+        private void cancel() {
+            Future<?> future = task;
+            if (null != future) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.murongshian.mvc.flight;
+
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.RequestKeys;
+import com.murongshian.mvc.cache.CachedResponse;
+import com.murongshian.mvc.invoker.ControllerInvoker;
+import com.murongshian.mvc.render.JsonRender;
+import com.murongshian.mvc.serializer.BinaryFormat;
+import com.murongshian.mvc.serializer.MessageWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 单个路由的请求合并
+ * 同一个key的第一个请求执行controller方法并按协商的响应格式把结果序列化, 执行期间到达的请求等待同一个结果;
+ * 协商的格式是key的一部分, 结果与Content-Type一起共用
+ */
+public class SingleFlightGroup {
+
+    /**
+     * 参与合并key的请求头, 包括varyOn和参数绑定的请求头
+     */
+    private final String[] headerNames;
+
+    /**
+     * 参与合并key的cookie, 即参数绑定的cookie
+     */
+    private final String[] cookieNames;
+
+    /**
+     * 正在执行的请求, 执行结束后移除
+     */
+    private final Map<String, CompletableFuture<CachedResponse>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * 路由的渲染器, 用于选择序列化器
+     */
+    private final JsonRender render;
+
+    /**
+     * @param headerNames 参与合并key的请求头
+     * @param cookieNames 参与合并key的cookie
+     * @param render      路由的渲染器
+     */
+    public SingleFlightGroup(String[] headerNames, String[] cookieNames, JsonRender render) {
+        this.headerNames = headerNames;
+        this.cookieNames = cookieNames;
+        this.render = render;
+    }
+
+    /**
+     * 执行或加入正在执行的请求
+     * 合并key为请求路径、按名称排序的请求参数、请求头、cookie和协商的响应格式
+     *
+     * @param handlerChain 请求处理链
+     * @param invoker      controller方法调用器
+     * @param args         controller方法参数
+     * @return 序列化后的响应, 每个请求各自一个stage, 取消时不影响其他请求
+     */
+    public CompletionStage<CachedResponse> execute(RequestHandlerChain handlerChain, ControllerInvoker invoker, Object[] args) {
+        MessageWriter writer = render.selectWriter(handlerChain.getRequest());
+        String key = RequestKeys.of(handlerChain, headerNames, cookieNames);
+        if (render.isBinary(writer)) {
+            key = RequestKeys.withFormat(key, BinaryFormat.CONTENT_TYPE);
+        }
+        CompletableFuture<CachedResponse> flight = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> existing = flights.putIfAbsent(key, flight);
+        if (null != existing) {
+            return existing.thenApply(Function.identity());
+        }
+        String flightKey = key;
+        try {
+            Object result = invoker.invoke(args);
+            if (result instanceof CompletionStage) {
+                ((CompletionStage<?>) result).whenComplete((value, ex) -> finish(flightKey, flight, writer, value, ex));
+            } else {
+                finish(flightKey, flight, writer, result, null);
+            }
+        } catch (Throwable e) {
+            finish(flightKey, flight, writer, null, e);
+        }
+        return flight.thenApply(Function.identity());
+    }
+
+    /**
+     * 先移除再完成, 完成之后到达的请求开始新的一次执行
+     */
+    private void finish(String key, CompletableFuture<CachedResponse> flight, MessageWriter writer, Object value, Throwable ex) {
+        flights.remove(key, flight);
+        if (null != ex) {
+            flight.completeExceptionally(ex instanceof CompletionException && null != ex.getCause() ? ex.getCause() : ex);
+            return;
+        }
+        try {
+            if (null == value) {
+                flight.complete(null);
+            } else {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                writer.write(value, out);
+                flight.complete(new CachedResponse(render.getContentType(writer),
+                        render.isNegotiable() ? "Accept" : null, out.toByteArray()));
+            }
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.murongshian.mvc.handler;
+
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.limit.AdaptiveLimiter;
+
+/**
+ * 全局并发限制
+ * 超过上限的请求直接响应503, 许可在请求结束时归还
+ */
+public class ConcurrencyLimitHandler implements Handler {
+    /**
+     * 全局限制器
+     */
+    private final AdaptiveLimiter limiter;
+
+    public ConcurrencyLimitHandler(AdaptiveLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public boolean handle(final RequestHandlerChain handlerChain) {
+        handlerChain.acquireLimit(limiter);
+        return true;
+    }
+}
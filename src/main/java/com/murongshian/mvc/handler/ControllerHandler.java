@@ -1,80 +1,482 @@
 package com.murongshian.mvc.handler;
 
+import com.murongshian.Doodle;
 import com.murongshian.core.BeanContainer;
+import com.murongshian.core.annotation.ControllerAdvice;
 import com.murongshian.mvc.ControllerInfo;
-import com.murongshian.mvc.PathInfo;
+import com.murongshian.mvc.RequestContext;
 import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.annotation.CacheResponse;
+import com.murongshian.mvc.annotation.ConcurrencyLimit;
+import com.murongshian.mvc.annotation.ETagVersion;
+import com.murongshian.mvc.annotation.ExecuteOn;
 import com.murongshian.mvc.annotation.RequestMapping;
-import com.murongshian.mvc.annotation.RequestParam;
+import com.murongshian.mvc.annotation.RequestMethod;
+import com.murongshian.mvc.annotation.RequestPriority;
+import com.murongshian.mvc.annotation.RequestTimeout;
 import com.murongshian.mvc.annotation.ResponseBody;
+import com.murongshian.mvc.annotation.SingleFlight;
+import com.murongshian.mvc.bind.BindingPlan;
+import com.murongshian.mvc.cache.ResponseCache;
+import com.murongshian.mvc.cache.RouteCache;
+import com.murongshian.mvc.convert.Converter;
+import com.murongshian.mvc.convert.ConverterRegistry;
+import com.murongshian.mvc.exception.ExceptionHandlerMethod;
+import com.murongshian.mvc.exception.ExceptionResolver;
+import com.murongshian.mvc.exception.GatewayTimeoutException;
+import com.murongshian.mvc.exception.HttpStatusException;
+import com.murongshian.mvc.exception.ServiceUnavailableException;
+import com.murongshian.mvc.executor.ExecutorRegistry;
+import com.murongshian.mvc.executor.Priority;
+import com.murongshian.mvc.executor.PriorityScheduler;
+import com.murongshian.mvc.flight.SingleFlightGroup;
+import com.murongshian.mvc.interceptor.HandlerInterceptor;
+import com.murongshian.mvc.interceptor.InterceptorRegistry;
+import com.murongshian.mvc.limit.AdaptiveLimiter;
+import com.murongshian.mvc.invoker.ControllerInvoker;
+import com.murongshian.mvc.invoker.InvokerType;
+import com.murongshian.mvc.render.CachedResponseRender;
+import com.murongshian.mvc.render.ETags;
 import com.murongshian.mvc.render.JsonRender;
+import com.murongshian.mvc.render.MethodNotAllowedRender;
 import com.murongshian.mvc.render.NotFoundRender;
+import com.murongshian.mvc.render.NotModifiedRender;
+import com.murongshian.mvc.render.OptionsRender;
 import com.murongshian.mvc.render.Render;
 import com.murongshian.mvc.render.ViewRender;
-import com.murongshian.util.CastUtil;
-import com.murongshian.util.ValidateUtil;
+import com.murongshian.mvc.route.RouteMatch;
+import com.murongshian.mvc.route.RouteTrie;
 
-import javax.servlet.http.HttpServletRequest;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller请求处理
  */
 public class ControllerHandler implements Handler {
     /**
-     * 请求信息和controller信息关系map
+     * 所有http请求方法
      */
-    private Map<PathInfo, ControllerInfo> pathControllerMap = new ConcurrentHashMap<>();
+    private static final RequestMethod[] METHODS = RequestMethod.values();
+
+    /**
+     * 以允许的请求方法位掩码为下标的Allow响应头
+     */
+    private static final String[] ALLOW_HEADERS = new String[1 << METHODS.length];
+
+    /**
+     * 以允许的请求方法位掩码为下标的OPTIONS渲染器和405渲染器
+     */
+    private static final Render[] OPTIONS_RENDERS = new Render[ALLOW_HEADERS.length];
+    private static final Render[] METHOD_NOT_ALLOWED_RENDERS = new Render[ALLOW_HEADERS.length];
+
+    static {
+        for (int mask = 1; mask < ALLOW_HEADERS.length; mask++) {
+            StringBuilder allow = new StringBuilder();
+            for (RequestMethod method : METHODS) {
+                if ((mask & (1 << method.ordinal())) != 0) {
+                    if (allow.length() > 0) {
+                        allow.append(", ");
+                    }
+                    allow.append(method.name());
+                }
+            }
+            ALLOW_HEADERS[mask] = allow.toString();
+            OPTIONS_RENDERS[mask] = new OptionsRender(ALLOW_HEADERS[mask]);
+            METHOD_NOT_ALLOWED_RENDERS[mask] = new MethodNotAllowedRender(ALLOW_HEADERS[mask]);
+        }
+    }
+
+    /**
+     * 指定请求优先级的请求头
+     */
+    public static final String PRIORITY_HEADER = "X-Request-Priority";
+
+    /**
+     * 指定请求截止时间(毫秒)的请求头
+     */
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    /**
+     * 截止时间到达时结束异步请求的定时器
+     */
+    private static final ScheduledThreadPoolExecutor DEADLINE_TIMER = createDeadlineTimer();
+
+    /**
+     * 以RequestMethod.ordinal()为下标的路由树, 启动完成后只读
+     */
+    private final RouteTrie[] routeTries = new RouteTrie[METHODS.length];
     /**
      * bean容器
      */
     private BeanContainer beanContainer;
 
+    /**
+     * 异步请求超时时间(毫秒)
+     */
+    private final long asyncTimeout;
+
+    /**
+     * 按优先级调度的线程池, 为null时没有@ExecuteOn的controller在请求线程中执行
+     */
+    private final PriorityScheduler priorityScheduler;
+
+    /**
+     * 拦截器注册表, 仅在注册路由时使用
+     */
+    private InterceptorRegistry interceptorRegistry;
+
+    /**
+     * @ControllerAdvice中的异常处理方法, 仅在注册路由时使用
+     */
+    private Map<Class<?>, ExceptionHandlerMethod> globalExceptionHandlers;
+
     public ControllerHandler() {
         beanContainer = BeanContainer.getInstance();
+        asyncTimeout = Doodle.getConfiguration().getAsyncTimeout();
+        priorityScheduler = Doodle.getConfiguration().getPriorityScheduler();
 
+        // 先注册容器中的转换器, 创建参数绑定计划时才能查找到
+        for (Class<?> clz : beanContainer.getClassesBySuper(Converter.class)) {
+            ConverterRegistry.getInstance().register((Converter<?>) beanContainer.getBean(clz));
+        }
+        interceptorRegistry = new InterceptorRegistry(beanContainer);
+        globalExceptionHandlers = new HashMap<>();
+        for (Class<?> clz : beanContainer.getClassesByAnnotation(ControllerAdvice.class)) {
+            globalExceptionHandlers.putAll(ExceptionResolver.collect(clz, beanContainer.getBean(clz)));
+        }
         Set<Class<?>> mappingSet = beanContainer.getClassesByAnnotation(RequestMapping.class);
         this.initPathControllerMap(mappingSet);
     }
 
     @Override
-    public boolean handle(final RequestHandlerChain handlerChain) {
-        String method = handlerChain.getRequestMethod();
+    public boolean handle(final RequestHandlerChain handlerChain) throws Exception {
+        RequestMethod httpMethod = handlerChain.getHttpMethod();
         String path = handlerChain.getRequestPath();
-        ControllerInfo controllerInfo = pathControllerMap.get(new PathInfo(method, path));
-        if (null == controllerInfo) {
-            handlerChain.setRender(new NotFoundRender());
+        RouteMatch routeMatch = handlerChain.getRouteMatch();
+        if (null == httpMethod || !matchRoute(httpMethod, path, routeMatch)) {
+            int allowed = getAllowedMethods(path, routeMatch);
+            if (0 == allowed) {
+                handlerChain.setRender(NotFoundRender.INSTANCE);
+            } else if (RequestMethod.OPTIONS == httpMethod) {
+                handlerChain.setRender(OPTIONS_RENDERS[allowed]);
+            } else {
+                handlerChain.setRender(METHOD_NOT_ALLOWED_RENDERS[allowed]);
+            }
             return false;
         }
-        Object result = invokeController(controllerInfo, handlerChain.getRequest());
-        setRender(result, controllerInfo, handlerChain);
+        ControllerInfo controllerInfo = routeMatch.getControllerInfo();
+        if (null != controllerInfo.getLimiter()) {
+            handlerChain.acquireLimit(controllerInfo.getLimiter());
+        }
+        setDeadline(controllerInfo, handlerChain);
+        ExecutorService executor = controllerInfo.getExecutor();
+        if (null != executor || null != priorityScheduler) {
+            dispatch(executor, controllerInfo, handlerChain);
+            return false;
+        }
+        HandlerInterceptor[] interceptors = controllerInfo.getInterceptors();
+        RequestContext previous = RequestContext.bind(handlerChain.getRequestContext());
+        try {
+            handlerChain.getRequestContext().checkDeadline();
+            if (interceptors.length > 0 && !handlerChain.applyPreHandle(interceptors)) {
+                return false;
+            }
+            Object result = invokeController(controllerInfo, handlerChain);
+            if (controllerInfo.isAsync() && null != result) {
+                CompletionStage<?> stage = (CompletionStage<?>) result;
+                if (!isDone(stage)) {
+                    startAsync(controllerInfo, handlerChain);
+                    awaitAsync(stage, controllerInfo, handlerChain);
+                    return false;
+                }
+                result = join(stage);
+            }
+            setRender(result, controllerInfo, handlerChain);
+            if (interceptors.length > 0) {
+                handlerChain.applyPostHandle();
+            }
+        } catch (Throwable e) {
+            handleException(e, controllerInfo, handlerChain);
+        } finally {
+            RequestContext.restore(previous);
+        }
         return true;
     }
 
+    /**
+     * 设置请求截止时间, 路由和请求头都指定时取较短的
+     */
+    private static void setDeadline(ControllerInfo controllerInfo, RequestHandlerChain handlerChain) {
+        long timeout = controllerInfo.getTimeout();
+        String header = handlerChain.getRequest().getHeader(TIMEOUT_HEADER);
+        if (null != header) {
+            try {
+                long requested = Long.parseLong(header.trim());
+                if (requested > 0 && (timeout <= 0 || requested < timeout)) {
+                    timeout = requested;
+                }
+            } catch (NumberFormatException e) {
+                // 忽略不合法的请求头
+            }
+        }
+        if (timeout > 0) {
+            handlerChain.getRequestContext().setTimeout(handlerChain.getStartNanos(), timeout);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor createDeadlineTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "doodle-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * 在请求方法对应的路由树中查找, HEAD请求没有单独注册时使用GET的路由
+     */
+    private boolean matchRoute(RequestMethod httpMethod, String path, RouteMatch routeMatch) {
+        RouteTrie routeTrie = routeTries[httpMethod.ordinal()];
+        if (null != routeTrie && routeTrie.match(path, routeMatch)) {
+            return true;
+        }
+        if (RequestMethod.HEAD == httpMethod) {
+            routeTrie = routeTries[RequestMethod.GET.ordinal()];
+            return null != routeTrie && routeTrie.match(path, routeMatch);
+        }
+        return false;
+    }
+
+    /**
+     * 获取该路径允许的请求方法位掩码, 路径不存在时返回0
+     */
+    private int getAllowedMethods(String path, RouteMatch routeMatch) {
+        int allowed = 0;
+        for (int i = 0; i < routeTries.length; i++) {
+            if (null != routeTries[i] && routeTries[i].match(path, routeMatch)) {
+                allowed |= 1 << i;
+            }
+        }
+        routeMatch.reset();
+        if (0 == allowed) {
+            return 0;
+        }
+        if ((allowed & (1 << RequestMethod.GET.ordinal())) != 0) {
+            allowed |= 1 << RequestMethod.HEAD.ordinal();
+        }
+        return allowed | 1 << RequestMethod.OPTIONS.ordinal();
+    }
+
     /**
      * 执行controller方法
+     * 版本号的ETag与If-None-Match匹配时不执行, 设置304渲染器后返回null
      */
-    private Object invokeController(ControllerInfo controllerInfo, HttpServletRequest request) {
-        Map<String, String> requestParams = getRequestParams(request);
-        List<Object> methodParams = instantiateMethodArgs(controllerInfo.getMethodParameter(), requestParams);
+    private Object invokeController(ControllerInfo controllerInfo, RequestHandlerChain handlerChain) throws Throwable {
+        Object[] args = controllerInfo.getBindingPlan().resolve(handlerChain);
+        ControllerInvoker versionInvoker = controllerInfo.getVersionInvoker();
+        if (null != versionInvoker) {
+            Object version = versionInvoker.invoke(args);
+            if (null != version) {
+                String etag = ETags.ofVersion(version);
+                handlerChain.getResponse().setHeader(ETags.ETAG, etag);
+                if (ETags.matches(handlerChain.getRequest(), etag)) {
+                    handlerChain.setRender(NotModifiedRender.INSTANCE);
+                    return null;
+                }
+            }
+        }
+        RouteCache routeCache = controllerInfo.getRouteCache();
+        if (null != routeCache) {
+            return routeCache.execute(handlerChain, controllerInfo.getInvoker(), args);
+        }
+        SingleFlightGroup singleFlight = controllerInfo.getSingleFlight();
+        if (null != singleFlight) {
+            return singleFlight.execute(handlerChain, controllerInfo.getInvoker(), args);
+        }
+        return controllerInfo.getInvoker().invoke(args);
+    }
 
-        Object controller = beanContainer.getBean(controllerInfo.getControllerClass());
-        Method invokeMethod = controllerInfo.getInvokeMethod();
-        invokeMethod.setAccessible(true);
-        Object result;
+    /**
+     * CompletionStage是否已完成, 已完成的直接在当前线程渲染
+     */
+    private static boolean isDone(CompletionStage<?> stage) {
+        return stage instanceof Future && ((Future<?>) stage).isDone();
+    }
+
+    /**
+     * 获取已完成的CompletionStage的结果, 异常时抛出原始异常
+     */
+    private static Object join(CompletionStage<?> stage) throws Throwable {
         try {
-            if (methodParams.size() == 0) {
-                result = invokeMethod.invoke(controller);
+            return stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw null == e.getCause() ? e : e.getCause();
+        }
+    }
+
+    /**
+     * 在controller的执行器中执行, 当前线程开始异步处理后直接返回
+     * 执行器队列已满时响应503
+     */
+    private void dispatch(ExecutorService executor, ControllerInfo controllerInfo, RequestHandlerChain handlerChain) {
+        startAsync(controllerInfo, handlerChain);
+        Runnable task = () -> runController(controllerInfo, handlerChain);
+        try {
+            if (null != executor) {
+                handlerChain.setAsyncTask(executor.submit(task), false);
             } else {
-                result = invokeMethod.invoke(controller, methodParams.toArray());
+                handlerChain.setAsyncTask(priorityScheduler.submit(getPriority(controllerInfo, handlerChain), task), false);
             }
-        } catch (Exception e) {
+        } catch (RejectedExecutionException e) {
+            completeAsync(null, new ServiceUnavailableException("执行器已满"), controllerInfo, handlerChain);
+        }
+    }
+
+    /**
+     * 请求优先级, 请求头只能把路由的优先级调低
+     */
+    private static Priority getPriority(ControllerInfo controllerInfo, RequestHandlerChain handlerChain) {
+        Priority priority = controllerInfo.getPriority();
+        Priority requested = Priority.resolve(handlerChain.getRequest().getHeader(PRIORITY_HEADER));
+        return null != requested && requested.ordinal() > priority.ordinal() ? requested : priority;
+    }
+
+    /**
+     * 在执行器线程中执行拦截器和controller方法, 返回CompletionStage时等待其完成
+     */
+    private void runController(ControllerInfo controllerInfo, RequestHandlerChain handlerChain) {
+        RequestContext previous = RequestContext.bind(handlerChain.getRequestContext());
+        try {
+            // 在队列中等待时已超过截止时间的请求不再执行
+            handlerChain.getRequestContext().checkDeadline();
+            HandlerInterceptor[] interceptors = controllerInfo.getInterceptors();
+            if (interceptors.length > 0 && !handlerChain.applyPreHandle(interceptors)) {
+                if (handlerChain.tryCompleteAsync()) {
+                    handlerChain.completeAsync();
+                }
+                return;
+            }
+            Object result = invokeController(controllerInfo, handlerChain);
+            if (controllerInfo.isAsync() && null != result) {
+                awaitAsync((CompletionStage<?>) result, controllerInfo, handlerChain);
+            } else {
+                completeAsync(result, null, controllerInfo, handlerChain);
+            }
+        } catch (Throwable e) {
+            completeAsync(null, e, controllerInfo, handlerChain);
+        } finally {
+            RequestContext.restore(previous);
+        }
+    }
+
+    /**
+     * CompletionStage完成时结束请求
+     */
+    private void awaitAsync(CompletionStage<?> stage, ControllerInfo controllerInfo, RequestHandlerChain handlerChain) {
+        if (stage instanceof Future) {
+            handlerChain.setAsyncTask((Future<?>) stage, true);
+        }
+        stage.whenComplete((value, ex) -> completeAsync(value, ex, controllerInfo, handlerChain));
+    }
+
+    /**
+     * 开始异步处理, 释放当前线程; 结果、异常或超时中先到达的一个结束请求
+     */
+    private void startAsync(ControllerInfo controllerInfo, RequestHandlerChain handlerChain) {
+        AsyncContext asyncContext = handlerChain.startAsync(asyncTimeout);
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                timeoutAsync(new ServiceUnavailableException("异步请求超时"), controllerInfo, handlerChain);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                completeAsync(null, event.getThrowable(), controllerInfo, handlerChain);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        RequestContext requestContext = handlerChain.getRequestContext();
+        if (requestContext.hasDeadline()) {
+            handlerChain.setDeadlineTask(DEADLINE_TIMER.schedule(
+                    () -> timeoutAsync(new GatewayTimeoutException("请求超过截止时间"), controllerInfo, handlerChain),
+                    requestContext.getRemainingNanos(), TimeUnit.NANOSECONDS));
+        }
+    }
+
+    /**
+     * 超时结束异步请求并取消异步任务
+     * 先结束请求再取消, 避免取消产生的CancellationException抢先完成
+     */
+    private void timeoutAsync(HttpStatusException e, ControllerInfo controllerInfo, RequestHandlerChain handlerChain) {
+        completeAsync(null, e, controllerInfo, handlerChain);
+        Future<?> task = handlerChain.getAsyncTask();
+        if (null != task) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * 异步结果到达后设置渲染器并结束请求, 与同步请求一样经过拦截器和@ExceptionHandler
+     */
+    private void completeAsync(Object value, Throwable ex, ControllerInfo controllerInfo, RequestHandlerChain handlerChain) {
+        if (!handlerChain.tryCompleteAsync()) {
+            return;
+        }
+        try {
+            if (null != ex) {
+                throw ex instanceof CompletionException && null != ex.getCause() ? ex.getCause() : ex;
+            }
+            setRender(value, controllerInfo, handlerChain);
+            if (controllerInfo.getInterceptors().length > 0) {
+                handlerChain.applyPostHandle();
+            }
+        } catch (Throwable e) {
+            try {
+                handleException(e, controllerInfo, handlerChain);
+            } catch (Exception unhandled) {
+                handlerChain.handleException(unhandled);
+            }
+        }
+        handlerChain.completeAsync();
+    }
+
+    /**
+     * 交给@ExceptionHandler方法处理, 没有对应的处理方法时原样抛出, 由处理链统一处理
+     */
+    private void handleException(Throwable e, ControllerInfo controllerInfo, RequestHandlerChain handlerChain) throws Exception {
+        ExceptionHandlerMethod handlerMethod = controllerInfo.getExceptionResolver().resolve(e);
+        if (null != handlerMethod) {
+            handlerMethod.handle(handlerChain, e);
+        } else if (e instanceof Exception) {
+            throw (Exception) e;
+        } else {
             throw new RuntimeException(e);
         }
-        return result;
     }
 
     /**
@@ -84,25 +486,48 @@ public class ControllerHandler implements Handler {
         if (null == result) {
             return;
         }
-        Render render;
-        boolean isJson = controllerInfo.getInvokeMethod().isAnnotationPresent(ResponseBody.class);
-        if (isJson) {
-            render = new JsonRender(result);
-        } else {
-            render = new ViewRender(result);
+        handlerChain.setResult(result);
+        handlerChain.setRender(controllerInfo.getRender());
+    }
+
+    /**
+     * 查找版本号方法, 参数类型需要与controller方法相同
+     */
+    private static Method getVersionMethod(Class<?> clz, Method method, String name) {
+        try {
+            Method versionMethod = clz.getDeclaredMethod(name, method.getParameterTypes());
+            if (void.class == versionMethod.getReturnType()) {
+                throw new RuntimeException("版本号方法不能没有返回值: " + versionMethod);
+            }
+            return versionMethod;
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("找不到参数类型相同的版本号方法" + name + ": " + method, e);
         }
-        handlerChain.setRender(render);
     }
 
     /**
-     * 初始化pathControllerMap
+     * 参与请求合并和响应缓存key的请求头: varyOn和参数绑定的请求头
+     */
+    private static String[] getKeyHeaders(String[] varyOn, BindingPlan bindingPlan) {
+        Set<String> headers = new LinkedHashSet<>(Arrays.asList(varyOn));
+        headers.addAll(Arrays.asList(bindingPlan.getHeaderNames()));
+        return headers.toArray(new String[0]);
+    }
+
+    /**
+     * 初始化路由树
      */
     private void initPathControllerMap(Set<Class<?>> mappingSet) {
         mappingSet.forEach(this::addPathController);
+        for (RouteTrie routeTrie : routeTries) {
+            if (null != routeTrie) {
+                routeTrie.compile();
+            }
+        }
     }
 
     /**
-     * 添加controllerInfo到pathControllerMap中
+     * 添加controllerInfo到路由树中
      */
     private void addPathController(Class<?> clz) {
         RequestMapping requestMapping = clz.getAnnotation(RequestMapping.class);
@@ -110,6 +535,11 @@ public class ControllerHandler implements Handler {
         if (!basePath.startsWith("/")) {
             basePath = "/" + basePath;
         }
+        Object controller = beanContainer.getBean(clz);
+        InvokerType invokerType = Doodle.getConfiguration().getInvokerType();
+        Map<Class<?>, ExceptionHandlerMethod> localExceptionHandlers = ExceptionResolver.collect(clz, controller);
+        ExceptionResolver exceptionResolver = localExceptionHandlers.isEmpty() && globalExceptionHandlers.isEmpty()
+                ? ExceptionResolver.EMPTY : new ExceptionResolver(localExceptionHandlers, globalExceptionHandlers);
         for (Method method : clz.getDeclaredMethods()) {
             if (method.isAnnotationPresent(RequestMapping.class)) {
                 RequestMapping methodRequest = method.getAnnotation(RequestMapping.class);
@@ -118,89 +548,80 @@ public class ControllerHandler implements Handler {
                     methodPath = "/" + methodPath;
                 }
                 String url = basePath + methodPath;
-                Map<String, Class<?>> methodParams = this.getMethodParams(method);
-                String httpMethod = String.valueOf(methodRequest.method());
-                PathInfo pathInfo = new PathInfo(httpMethod, url);
-                if (pathControllerMap.containsKey(pathInfo)) {
-                    System.out.println("url: " + pathInfo.getHttpPath() + "重复注册");
+                BindingPlan bindingPlan = new BindingPlan(method, url);
+                RequestMethod httpMethod = methodRequest.method();
+                RouteTrie routeTrie = routeTries[httpMethod.ordinal()];
+                if (null == routeTrie) {
+                    routeTrie = new RouteTrie();
+                    routeTries[httpMethod.ordinal()] = routeTrie;
+                }
+                ControllerInfo controllerInfo = new ControllerInfo(clz, method, bindingPlan);
+                controllerInfo.setInvoker(invokerType.create(controller, method));
+                // 序列化实现和返回类型的序列化器在注册时确定
+                JsonRender jsonRender = method.isAnnotationPresent(ResponseBody.class) ? JsonRender.of(method) : null;
+                controllerInfo.setRender(null != jsonRender ? jsonRender : ViewRender.INSTANCE);
+                controllerInfo.setInterceptors(interceptorRegistry.getInterceptors(url));
+                controllerInfo.setExceptionResolver(exceptionResolver);
+                controllerInfo.setAsync(CompletionStage.class.isAssignableFrom(method.getReturnType()));
+                ConcurrencyLimit concurrencyLimit = method.isAnnotationPresent(ConcurrencyLimit.class)
+                        ? method.getAnnotation(ConcurrencyLimit.class) : clz.getAnnotation(ConcurrencyLimit.class);
+                if (null != concurrencyLimit) {
+                    controllerInfo.setLimiter(new AdaptiveLimiter(concurrencyLimit.initial(), concurrencyLimit.min(),
+                            concurrencyLimit.max(), concurrencyLimit.latencyThreshold()));
+                }
+                SingleFlight singleFlight = method.getAnnotation(SingleFlight.class);
+                if (null != singleFlight) {
+                    if (RequestMethod.GET != httpMethod || !method.isAnnotationPresent(ResponseBody.class)
+                            || bindingPlan.hasRequestBody()) {
+                        throw new RuntimeException("@SingleFlight只能用于@ResponseBody且没有@RequestBody参数的GET方法: " + method);
+                    }
+                    // 合并后的结果是按协商格式序列化好的响应; 参数绑定的请求头和cookie都加入合并key, 不同用户的请求不会合并
+                    controllerInfo.setSingleFlight(new SingleFlightGroup(getKeyHeaders(singleFlight.varyOn(), bindingPlan),
+                            bindingPlan.getCookieNames(), jsonRender));
+                    controllerInfo.setAsync(true);
+                    controllerInfo.setRender(CachedResponseRender.INSTANCE);
+                }
+                CacheResponse cacheResponse = method.getAnnotation(CacheResponse.class);
+                if (null != cacheResponse) {
+                    if (RequestMethod.GET != httpMethod || null == jsonRender || null != singleFlight
+                            || bindingPlan.hasRequestBody()) {
+                        throw new RuntimeException("@CacheResponse只能用于@ResponseBody且没有@RequestBody参数的GET方法, 且不能与@SingleFlight同时使用: " + method);
+                    }
+                    // 命中时直接渲染缓存的响应; 参数绑定的请求头和cookie都加入缓存key, 不同用户不会共用响应
+                    controllerInfo.setRouteCache(new RouteCache((ResponseCache) beanContainer.getBean(ResponseCache.class),
+                            cacheResponse.ttl(), cacheResponse.staleWhileRevalidate(),
+                            getKeyHeaders(cacheResponse.varyOn(), bindingPlan), bindingPlan.getCookieNames(), jsonRender));
+                    controllerInfo.setAsync(true);
+                    controllerInfo.setRender(CachedResponseRender.INSTANCE);
+                }
+                ETagVersion etagVersion = method.getAnnotation(ETagVersion.class);
+                if (null != etagVersion) {
+                    if (RequestMethod.GET != httpMethod) {
+                        throw new RuntimeException("@ETagVersion只能用于GET方法: " + method);
+                    }
+                    controllerInfo.setVersionInvoker(invokerType.create(controller, getVersionMethod(clz, method, etagVersion.value())));
+                }
+                RequestTimeout requestTimeout = method.isAnnotationPresent(RequestTimeout.class)
+                        ? method.getAnnotation(RequestTimeout.class) : clz.getAnnotation(RequestTimeout.class);
+                if (null != requestTimeout) {
+                    controllerInfo.setTimeout(requestTimeout.value());
                 }
-                ControllerInfo controllerInfo = new ControllerInfo(clz, method, methodParams);
-                this.pathControllerMap.put(pathInfo, controllerInfo);
-                System.out.println("mapped:,method= "+pathInfo.getHttpPath() + pathInfo.getHttpMethod()  +" controller: " +
+                RequestPriority requestPriority = method.isAnnotationPresent(RequestPriority.class)
+                        ? method.getAnnotation(RequestPriority.class) : clz.getAnnotation(RequestPriority.class);
+                if (null != requestPriority) {
+                    controllerInfo.setPriority(requestPriority.value());
+                }
+                ExecuteOn executeOn = method.isAnnotationPresent(ExecuteOn.class)
+                        ? method.getAnnotation(ExecuteOn.class) : clz.getAnnotation(ExecuteOn.class);
+                if (null != executeOn) {
+                    controllerInfo.setExecutor(ExecutorRegistry.getInstance().getExecutor(executeOn, clz));
+                }
+                if (null != routeTrie.add(url, controllerInfo)) {
+                    System.out.println("url: " + url + "重复注册");
+                }
+                System.out.println("mapped:,method= " + url + httpMethod + " controller: " +
                          controllerInfo.getControllerClass().getName() + controllerInfo.getInvokeMethod().getName());
             }
         }
     }
-
-    /**
-     * 获取执行方法的参数
-     */
-    private Map<String, Class<?>> getMethodParams(Method method) {
-        Map<String, Class<?>> map = new HashMap<>();
-        for (Parameter parameter : method.getParameters()) {
-            RequestParam param = parameter.getAnnotation(RequestParam.class);
-            // TODO: 不使用注解匹配参数名字
-            if (null == param) {
-                throw new RuntimeException("必须有RequestParam指定的参数名");
-            }
-            map.put(param.value(), parameter.getType());
-        }
-        return map;
-    }
-
-    /**
-     * 获取HttpServletRequest中的参数
-     */
-    private Map<String, String> getRequestParams(HttpServletRequest request) {
-        Map<String, String> paramMap = new HashMap<>();
-
-        Map<String, String[]> param = request.getParameterMap();
-        for (Map.Entry<String, String[]> itemList : param.entrySet()) {
-            if(ValidateUtil.isNotEmpty(itemList.getValue())){
-                paramMap.put(itemList.getKey(), itemList.getValue()[0]);
-            }
-        }
-//        //上述代码等效成下列lambda
-//        //GET和POST方法是这样获取请求参数的
-//        request.getParameterMap().forEach((paramName, paramsValues) -> {
-//            if (ValidateUtil.isNotEmpty(paramsValues)) {
-//                paramMap.put(paramName, paramsValues[0]);
-//            }
-//        });
-        // TODO: Body、Path、Header等方式的请求参数获取
-        return paramMap;
-    }
-
-    /**
-     * 实例化方法参数
-     */
-    private List<Object> instantiateMethodArgs(Map<String, Class<?>> methodParams, Map<String, String> requestParams) {
-        List<Object> objectList = new ArrayList<>();
-        Set<String> keySet = methodParams.keySet();
-        for(String paramName : keySet){
-            Class<?> type = methodParams.get(paramName);
-            String requestValue = requestParams.get(paramName);
-            Object value;
-            if(null == requestValue){
-                value = CastUtil.primitiveNull(type);
-            }else{
-                value = CastUtil.convert(type,requestValue);
-            }
-            objectList.add(value);
-        }
-        return objectList;
-        //上述代码等效成下列lambda
-//        return methodParams.keySet().stream().map(paramName -> {
-//            Class<?> type = methodParams.get(paramName);
-//            String requestValue = requestParams.get(paramName);
-//            Object value;
-//            if (null == requestValue) {
-//                value = CastUtil.primitiveNull(type);
-//            } else {
-//                value = CastUtil.convert(type, requestValue);
-//                // TODO: 实现非原生类的参数实例化
-//            }
-//            return value;
-//        }).collect(Collectors.toList());
-    }
 }
\ No newline at end of file
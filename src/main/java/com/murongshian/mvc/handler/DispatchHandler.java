@@ -0,0 +1,45 @@
+package com.murongshian.mvc.handler;
+
+import com.murongshian.mvc.RequestHandlerChain;
+
+/**
+ * 请求分发
+ * 处理链的最后一环, 按初始化时确定的路径前缀一次判断请求属于静态资源、jsp还是controller, 直接交给对应的Handler
+ */
+public class DispatchHandler implements Handler {
+    /**
+     * 静态资源路径前缀
+     */
+    private final String assetPath;
+
+    /**
+     * jsp路径前缀
+     */
+    private final String viewPath;
+
+    private final Handler simpleUrlHandler;
+
+    private final Handler jspHandler;
+
+    private final Handler controllerHandler;
+
+    public DispatchHandler(String assetPath, String viewPath, Handler simpleUrlHandler, Handler jspHandler, Handler controllerHandler) {
+        this.assetPath = assetPath;
+        this.viewPath = viewPath;
+        this.simpleUrlHandler = simpleUrlHandler;
+        this.jspHandler = jspHandler;
+        this.controllerHandler = controllerHandler;
+    }
+
+    @Override
+    public boolean handle(final RequestHandlerChain handlerChain) throws Exception {
+        String path = handlerChain.getRequestPath();
+        if (path.startsWith(assetPath)) {
+            return simpleUrlHandler.handle(handlerChain);
+        }
+        if (path.startsWith(viewPath)) {
+            return jspHandler.handle(handlerChain);
+        }
+        return controllerHandler.handle(handlerChain);
+    }
+}
@@ -1,6 +1,5 @@
 package com.murongshian.mvc.handler;
 
-import com.murongshian.Doodle;
 import com.murongshian.mvc.RequestHandlerChain;
 
 import javax.servlet.RequestDispatcher;
@@ -28,19 +27,12 @@ public class JspHandler implements Handler {
         }
     }
 
-    @Override
-    public boolean handle(final RequestHandlerChain handlerChain) throws Exception {
-        if (isPageView(handlerChain.getRequestPath())) {
-            jspServlet.forward(handlerChain.getRequest(), handlerChain.getResponse());
-            return false;
-        }
-        return true;
-    }
-
     /**
-     * 是否为jsp资源
+     * 由DispatchHandler按路径前缀分发过来, 不再重复判断
      */
-    private boolean isPageView(String url) {
-        return url.startsWith(Doodle.getConfiguration().getViewPath());
+    @Override
+    public boolean handle(final RequestHandlerChain handlerChain) throws Exception {
+        jspServlet.forward(handlerChain.getRequest(), handlerChain.getResponse());
+        return false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.murongshian.mvc.handler;
+
+import com.murongshian.mvc.RequestHandlerChain;
+
+/**
+ * 只对指定路径前缀生效的Handler
+ * 路径不匹配时直接交给处理链的下一个Handler
+ */
+public class PathPrefixHandler implements Handler {
+    /**
+     * 路径前缀
+     */
+    private final String[] prefixes;
+
+    /**
+     * 实际执行的Handler
+     */
+    private final Handler delegate;
+
+    public PathPrefixHandler(String[] prefixes, Handler delegate) {
+        this.prefixes = prefixes;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean handle(final RequestHandlerChain handlerChain) throws Exception {
+        String path = handlerChain.getRequestPath();
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix)) {
+                return delegate.handle(handlerChain);
+            }
+        }
+        return true;
+    }
+}
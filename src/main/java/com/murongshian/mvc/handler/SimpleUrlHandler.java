@@ -1,7 +1,6 @@
 package com.murongshian.mvc.handler;
 
 import com.murongshian.mvc.RequestHandlerChain;
-import com.murongshian.Doodle;
 
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletContext;
@@ -30,19 +29,12 @@ public class SimpleUrlHandler implements Handler {
         System.out.println("The default servlet for serving static resource is " + TOMCAT_DEFAULT_SERVLET);
     }
 
-    @Override
-    public boolean handle(final RequestHandlerChain handlerChain) throws Exception {
-        if (isStaticResource(handlerChain.getRequestPath())) {
-            defaultServlet.forward(handlerChain.getRequest(), handlerChain.getResponse());
-            return false;
-        }
-        return true;
-    }
-
     /**
-     * 是否为静态资源
+     * 由DispatchHandler按路径前缀分发过来, 不再重复判断
      */
-    private boolean isStaticResource(String url) {
-        return url.startsWith(Doodle.getConfiguration().getAssetPath());
+    @Override
+    public boolean handle(final RequestHandlerChain handlerChain) throws Exception {
+        defaultServlet.forward(handlerChain.getRequest(), handlerChain.getResponse());
+        return false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.murongshian.mvc.interceptor;
+
+import com.murongshian.mvc.RequestHandlerChain;
+
+/**
+ * controller方法拦截器
+ * 容器中实现了该接口的Bean在启动时按路由匹配, 每个路由的拦截器数组在注册路由时确定
+ */
+public interface HandlerInterceptor {
+
+    /**
+     * controller方法执行前调用
+     *
+     * @return false时不再执行后续拦截器和controller方法, 由拦截器自己写响应或者设置render
+     */
+    default boolean preHandle(RequestHandlerChain handlerChain) throws Exception {
+        return true;
+    }
+
+    /**
+     * controller方法正常返回后、渲染前调用, 可以通过handlerChain修改返回值或者render
+     */
+    default void postHandle(RequestHandlerChain handlerChain) throws Exception {
+    }
+
+    /**
+     * 请求结束后调用, 只对preHandle返回true的拦截器调用
+     *
+     * @param ex 处理过程中抛出的异常, 没有时为null
+     */
+    default void afterCompletion(RequestHandlerChain handlerChain, Exception ex) throws Exception {
+    }
+}
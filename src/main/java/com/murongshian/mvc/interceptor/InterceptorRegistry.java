@@ -0,0 +1,154 @@
+package com.murongshian.mvc.interceptor;
+
+import com.murongshian.core.BeanContainer;
+import com.murongshian.mvc.annotation.InterceptorMapping;
+import com.murongshian.mvc.route.RouteTrie;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 拦截器注册表
+ * 启动时收集容器中的拦截器并按order排序, 为每个路由计算生效的拦截器数组
+ * 匹配的对象是路由路径而不是请求路径, 拦截器路径中的{name}和*只能覆盖路由中同一位置的{name}和*,
+ * 拦截器只覆盖路由的一部分请求时(如拦截器为 /user/1, 路由为 /user/{id})不生效
+ */
+public class InterceptorRegistry {
+
+    /**
+     * 没有拦截器时共用的空数组
+     */
+    public static final HandlerInterceptor[] EMPTY = new HandlerInterceptor[0];
+
+    /**
+     * 按order排序的拦截器
+     */
+    private final List<MappedInterceptor> interceptors = new ArrayList<>();
+
+    /**
+     * 收集容器中的拦截器
+     */
+    public InterceptorRegistry(BeanContainer beanContainer) {
+        for (Class<?> clz : beanContainer.getClassesBySuper(HandlerInterceptor.class)) {
+            HandlerInterceptor interceptor = (HandlerInterceptor) beanContainer.getBean(clz);
+            InterceptorMapping mapping = clz.getAnnotation(InterceptorMapping.class);
+            if (null == mapping) {
+                interceptors.add(new MappedInterceptor(new String[]{RouteTrie.CATCH_ALL}, new String[0], 0, interceptor));
+            } else {
+                interceptors.add(new MappedInterceptor(mapping.value(), mapping.exclude(), mapping.order(), interceptor));
+            }
+        }
+        Collections.sort(interceptors);
+    }
+
+    /**
+     * 获取对该路由生效的拦截器
+     *
+     * @param pattern 路由路径
+     * @return 按执行顺序排列的拦截器, 没有时返回EMPTY
+     */
+    public HandlerInterceptor[] getInterceptors(String pattern) {
+        if (interceptors.isEmpty()) {
+            return EMPTY;
+        }
+        String[] route = segments(pattern);
+        List<HandlerInterceptor> matched = new ArrayList<>();
+        for (MappedInterceptor interceptor : interceptors) {
+            if (interceptor.matches(route)) {
+                matched.add(interceptor.interceptor);
+            }
+        }
+        return matched.isEmpty() ? EMPTY : matched.toArray(new HandlerInterceptor[0]);
+    }
+
+    /**
+     * 拆分路径段, 忽略空段
+     */
+    private static String[] segments(String pattern) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : pattern.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    /**
+     * 拦截器路径是否覆盖路由路径的所有请求
+     */
+    private static boolean covers(String[] pattern, int pi, String[] route, int ri) {
+        if (pi == pattern.length) {
+            return ri == route.length;
+        }
+        String segment = pattern[pi];
+        if (RouteTrie.CATCH_ALL.equals(segment)) {
+            for (int i = ri; i <= route.length; i++) {
+                if (covers(pattern, pi + 1, route, i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (ri == route.length || RouteTrie.CATCH_ALL.equals(route[ri])) {
+            return false;
+        }
+        if (isSingle(segment)) {
+            return covers(pattern, pi + 1, route, ri + 1);
+        }
+        return !isSingle(route[ri]) && segment.equals(route[ri]) && covers(pattern, pi + 1, route, ri + 1);
+    }
+
+    /**
+     * 是否为匹配单个路径段的写法
+     */
+    private static boolean isSingle(String segment) {
+        return RouteTrie.WILDCARD.equals(segment) || (segment.startsWith("{") && segment.endsWith("}"));
+    }
+
+    /**
+     * 带路径和执行顺序的拦截器
+     */
+    private static class MappedInterceptor implements Comparable<MappedInterceptor> {
+        private final String[][] includes;
+
+        private final String[][] excludes;
+
+        private final int order;
+
+        private final HandlerInterceptor interceptor;
+
+        private MappedInterceptor(String[] includes, String[] excludes, int order, HandlerInterceptor interceptor) {
+            this.includes = new String[includes.length][];
+            for (int i = 0; i < includes.length; i++) {
+                this.includes[i] = segments(includes[i]);
+            }
+            this.excludes = new String[excludes.length][];
+            for (int i = 0; i < excludes.length; i++) {
+                this.excludes[i] = segments(excludes[i]);
+            }
+            this.order = order;
+            this.interceptor = interceptor;
+        }
+
+        private boolean matches(String[] route) {
+            for (String[] exclude : excludes) {
+                if (covers(exclude, 0, route, 0)) {
+                    return false;
+                }
+            }
+            for (String[] include : includes) {
+                if (covers(include, 0, route, 0)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int compareTo(MappedInterceptor o) {
+            return Integer.compare(order, o.order);
+        }
+    }
+}
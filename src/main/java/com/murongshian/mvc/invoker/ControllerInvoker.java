@@ -0,0 +1,16 @@
+package com.murongshian.mvc.invoker;
+
+/**
+ * controller方法调用器
+ * 注册路由时创建, 已绑定controller实例
+ */
+public interface ControllerInvoker {
+    /**
+     * 调用controller方法
+     *
+     * @param args 方法参数, 顺序与方法声明一致
+     * @return 方法返回值, void方法返回null
+     * @throws Throwable controller方法抛出的异常
+     */
+    Object invoke(Object[] args) throws Throwable;
+}
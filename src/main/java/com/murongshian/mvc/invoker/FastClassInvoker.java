@@ -0,0 +1,58 @@
+package com.murongshian.mvc.invoker;
+
+import net.sf.cglib.reflect.FastClass;
+import net.sf.cglib.reflect.FastMethod;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * cglib FastClass调用器
+ * 通过方法下标直接调用, 不经过反射
+ */
+public class FastClassInvoker implements ControllerInvoker {
+
+    /**
+     * controller实例
+     */
+    private final Object controller;
+
+    /**
+     * FastClass方法
+     */
+    private final FastMethod fastMethod;
+
+    private FastClassInvoker(Object controller, FastMethod fastMethod) {
+        this.controller = controller;
+        this.fastMethod = fastMethod;
+    }
+
+    /**
+     * 创建调用器, FastClass只能调用public方法, 其他情况退化为MethodHandle调用
+     *
+     * @param controller controller实例
+     * @param method     controller方法
+     * @return 调用器
+     */
+    public static ControllerInvoker create(Object controller, Method method) {
+        if (Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            try {
+                FastClass fastClass = FastClass.create(method.getDeclaringClass());
+                return new FastClassInvoker(controller, fastClass.getMethod(method));
+            } catch (Exception e) {
+                System.err.println("create FastClass error" + e);
+            }
+        }
+        return new MethodHandleInvoker(controller, method);
+    }
+
+    @Override
+    public Object invoke(Object[] args) throws Throwable {
+        try {
+            return fastMethod.invoke(controller, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.murongshian.mvc.invoker;
+
+import java.lang.reflect.Method;
+
+/**
+ * controller方法调用方式
+ */
+public enum InvokerType {
+    /**
+     * MethodHandle调用
+     */
+    METHOD_HANDLE {
+        @Override
+        public ControllerInvoker create(Object controller, Method method) {
+            return new MethodHandleInvoker(controller, method);
+        }
+    },
+
+    /**
+     * LambdaMetafactory生成的调用类, 不支持时退化为MethodHandle调用
+     */
+    LAMBDA {
+        @Override
+        public ControllerInvoker create(Object controller, Method method) {
+            return LambdaInvoker.create(controller, method);
+        }
+    },
+
+    /**
+     * cglib FastClass调用, 不支持时退化为MethodHandle调用
+     */
+    FAST_CLASS {
+        @Override
+        public ControllerInvoker create(Object controller, Method method) {
+            return FastClassInvoker.create(controller, method);
+        }
+    };
+
+    /**
+     * 创建调用器
+     *
+     * @param controller controller实例
+     * @param method     controller方法
+     * @return 绑定了controller实例的调用器
+     */
+    public abstract ControllerInvoker create(Object controller, Method method);
+}
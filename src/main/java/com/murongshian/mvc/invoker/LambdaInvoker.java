@@ -0,0 +1,209 @@
+package com.murongshian.mvc.invoker;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * LambdaMetafactory调用器
+ * 为controller方法生成一个实现了固定参数个数函数接口的类, 调用时是普通的接口调用
+ * 只支持public类的public非静态、非void方法, 参数不超过MAX_ARITY个, 其他情况退化为MethodHandle调用
+ */
+public final class LambdaInvoker {
+
+    /**
+     * 支持的最大参数个数
+     */
+    public static final int MAX_ARITY = 5;
+
+    private LambdaInvoker() {
+    }
+
+    /**
+     * 创建调用器
+     *
+     * @param controller controller实例
+     * @param method     controller方法
+     * @return 调用器
+     */
+    public static ControllerInvoker create(Object controller, Method method) {
+        int arity = method.getParameterCount();
+        int modifiers = method.getModifiers();
+        if (arity <= MAX_ARITY && Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers)
+                && Modifier.isPublic(method.getDeclaringClass().getModifiers()) && method.getReturnType() != void.class
+                && isVisible(method.getDeclaringClass())) {
+            try {
+                return bind(controller, method, arity);
+            } catch (Throwable e) {
+                System.err.println("create LambdaInvoker error" + e);
+            }
+        }
+        return new MethodHandleInvoker(controller, method);
+    }
+
+    /**
+     * 生成函数接口实现并绑定controller实例
+     */
+    private static ControllerInvoker bind(Object controller, Method method, int arity) throws Throwable {
+        Class<?> functionClass = FUNCTION_CLASSES[arity];
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle implMethod = lookup.unreflect(method);
+        Class<?>[] erasedParams = new Class<?>[arity];
+        Class<?>[] boxedParams = new Class<?>[arity];
+        for (int i = 0; i < arity; i++) {
+            erasedParams[i] = Object.class;
+            boxedParams[i] = box(method.getParameterTypes()[i]);
+        }
+        CallSite callSite = LambdaMetafactory.metafactory(lookup, "invoke",
+                MethodType.methodType(functionClass, method.getDeclaringClass()),
+                MethodType.methodType(Object.class, erasedParams),
+                implMethod,
+                MethodType.methodType(box(method.getReturnType()), boxedParams));
+        Object function = callSite.getTarget().invoke(controller);
+        switch (arity) {
+            case 0:
+                return new Invoker0((Function0) function);
+            case 1:
+                return new Invoker1((Function1) function);
+            case 2:
+                return new Invoker2((Function2) function);
+            case 3:
+                return new Invoker3((Function3) function);
+            case 4:
+                return new Invoker4((Function4) function);
+            default:
+                return new Invoker5((Function5) function);
+        }
+    }
+
+    /**
+     * 生成的类由本类的ClassLoader加载, 需要能看到controller类
+     */
+    private static boolean isVisible(Class<?> clz) {
+        try {
+            return Class.forName(clz.getName(), false, LambdaInvoker.class.getClassLoader()) == clz;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 基本类型转为包装类型
+     */
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    private static final Class<?>[] FUNCTION_CLASSES = {
+            Function0.class, Function1.class, Function2.class, Function3.class, Function4.class, Function5.class
+    };
+
+    public interface Function0 {
+        Object invoke();
+    }
+
+    public interface Function1 {
+        Object invoke(Object a0);
+    }
+
+    public interface Function2 {
+        Object invoke(Object a0, Object a1);
+    }
+
+    public interface Function3 {
+        Object invoke(Object a0, Object a1, Object a2);
+    }
+
+    public interface Function4 {
+        Object invoke(Object a0, Object a1, Object a2, Object a3);
+    }
+
+    public interface Function5 {
+        Object invoke(Object a0, Object a1, Object a2, Object a3, Object a4);
+    }
+
+    private static final class Invoker0 implements ControllerInvoker {
+        private final Function0 function;
+
+        Invoker0(Function0 function) {
+            this.function = function;
+        }
+
+        @Override
+        public Object invoke(Object[] args) {
+            return function.invoke();
+        }
+    }
+
+    private static final class Invoker1 implements ControllerInvoker {
+        private final Function1 function;
+
+        Invoker1(Function1 function) {
+            this.function = function;
+        }
+
+        @Override
+        public Object invoke(Object[] args) {
+            return function.invoke(args[0]);
+        }
+    }
+
+    private static final class Invoker2 implements ControllerInvoker {
+        private final Function2 function;
+
+        Invoker2(Function2 function) {
+            this.function = function;
+        }
+
+        @Override
+        public Object invoke(Object[] args) {
+            return function.invoke(args[0], args[1]);
+        }
+    }
+
+    private static final class Invoker3 implements ControllerInvoker {
+        private final Function3 function;
+
+        Invoker3(Function3 function) {
+            this.function = function;
+        }
+
+        @Override
+        public Object invoke(Object[] args) {
+            return function.invoke(args[0], args[1], args[2]);
+        }
+    }
+
+    private static final class Invoker4 implements ControllerInvoker {
+        private final Function4 function;
+
+        Invoker4(Function4 function) {
+            this.function = function;
+        }
+
+        @Override
+        public Object invoke(Object[] args) {
+            return function.invoke(args[0], args[1], args[2], args[3]);
+        }
+    }
+
+    private static final class Invoker5 implements ControllerInvoker {
+        private final Function5 function;
+
+        Invoker5(Function5 function) {
+            this.function = function;
+        }
+
+        @Override
+        public Object invoke(Object[] args) {
+            return function.invoke(args[0], args[1], args[2], args[3], args[4]);
+        }
+    }
+}
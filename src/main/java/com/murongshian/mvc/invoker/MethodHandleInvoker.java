@@ -0,0 +1,40 @@
+package com.murongshian.mvc.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * MethodHandle调用器
+ * 方法句柄在创建时绑定controller实例, 并统一成(Object[])Object的形式, 调用时使用invokeExact
+ */
+public class MethodHandleInvoker implements ControllerInvoker {
+
+    private static final MethodType INVOKE_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    /**
+     * 绑定了controller实例的方法句柄
+     */
+    private final MethodHandle handle;
+
+    public MethodHandleInvoker(Object controller, Method method) {
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                handle = handle.bindTo(controller);
+            }
+            this.handle = handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKE_TYPE);
+        } catch (IllegalAccessException e) {
+            System.err.println("create MethodHandle error" + e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Object invoke(Object[] args) throws Throwable {
+        return handle.invokeExact(args);
+    }
+}
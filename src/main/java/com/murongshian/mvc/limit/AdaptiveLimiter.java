@@ -0,0 +1,137 @@
+package com.murongshian.mvc.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自适应并发限制器(AIMD)
+ * 并发数达到上限时直接拒绝; 请求结束时根据耗时调整上限:
+ * 耗时超过阈值或服务端出错时按比例减小上限(每个阈值周期最多减小一次), 否则在并发数接近上限时加1
+ * 计数全部使用CAS, 不加锁
+ */
+public class AdaptiveLimiter {
+    /**
+     * 上限的减小比例
+     */
+    private static final double BACKOFF_RATIO = 0.9;
+
+    /**
+     * 最小并发上限
+     */
+    private final int minLimit;
+
+    /**
+     * 最大并发上限
+     */
+    private final int maxLimit;
+
+    /**
+     * 耗时阈值(纳秒)
+     */
+    private final long latencyThresholdNanos;
+
+    /**
+     * 当前并发上限
+     */
+    private final AtomicInteger limit;
+
+    /**
+     * 当前并发数
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 上次减小上限的时间
+     */
+    private final AtomicLong lastBackoffNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param initialLimit       初始并发上限
+     * @param minLimit           最小并发上限
+     * @param maxLimit           最大并发上限
+     * @param latencyThresholdMs 耗时阈值(毫秒)
+     */
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("并发上限参数不合法: " + initialLimit + "," + minLimit + "," + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.limit = new AtomicInteger(initialLimit);
+    }
+
+    /**
+     * 获取许可
+     *
+     * @return 并发数已达上限时返回false
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还许可并调整上限
+     *
+     * @param rttNanos 请求耗时(纳秒)
+     * @param failed   是否为服务端错误
+     */
+    public void release(long rttNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        if (failed || rttNanos > latencyThresholdNanos) {
+            backoff();
+        } else {
+            grow(current);
+        }
+    }
+
+    /**
+     * 乘性减小, 同一阈值周期内的多个慢请求只减小一次
+     */
+    private void backoff() {
+        long now = System.nanoTime();
+        long last = lastBackoffNanos.get();
+        if (now - last < latencyThresholdNanos || !lastBackoffNanos.compareAndSet(last, now)) {
+            return;
+        }
+        for (;;) {
+            int current = limit.get();
+            int next = Math.max(minLimit, (int) (current * BACKOFF_RATIO));
+            if (next == current || limit.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 加性增大, 只在并发数达到上限一半以上时增大, 避免空闲时上限无限增长
+     */
+    private void grow(int inFlightBeforeRelease) {
+        for (;;) {
+            int current = limit.get();
+            if (inFlightBeforeRelease * 2 < current || current >= maxLimit) {
+                return;
+            }
+            if (limit.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
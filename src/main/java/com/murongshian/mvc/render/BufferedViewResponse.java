@@ -0,0 +1,133 @@
+package com.murongshian.mvc.render;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * 把页面输出写入ResponseBodyStream的响应包装
+ * 页面渲染完才写出, 由ResponseBodyStream计算ETag、设置Content-Length或压缩
+ * 输出流在第一次获取时创建, 此时页面已设置响应类型; 页面设置的Content-Length和flush都被忽略
+ */
+class BufferedViewResponse extends HttpServletResponseWrapper {
+
+    private final HttpServletRequest request;
+
+    private ResponseBodyStream body;
+
+    private ServletOutputStream outputStream;
+
+    private PrintWriter writer;
+
+    BufferedViewResponse(HttpServletRequest request, HttpServletResponse response) {
+        super(response);
+        this.request = request;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (null != writer) {
+            throw new IllegalStateException("已调用getWriter()");
+        }
+        if (null == outputStream) {
+            outputStream = new BodyOutputStream(getBody());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (null != outputStream) {
+            throw new IllegalStateException("已调用getOutputStream()");
+        }
+        if (null == writer) {
+            writer = new PrintWriter(new OutputStreamWriter(getBody(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (null != writer) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * 页面渲染完成, 写出缓冲的内容; 容器在forward结束时可能已关闭过
+     */
+    void finish() throws IOException {
+        if (null != writer) {
+            writer.close();
+        } else if (null != body) {
+            body.close();
+        }
+    }
+
+    /**
+     * 页面渲染失败, 丢弃缓冲的内容
+     */
+    void discard() {
+        if (null != body) {
+            body.discard();
+        }
+    }
+
+    private ResponseBodyStream getBody() {
+        if (null == body) {
+            body = new ResponseBodyStream(request, (HttpServletResponse) getResponse());
+        }
+        return body;
+    }
+
+    private static final class BodyOutputStream extends ServletOutputStream {
+        private final ResponseBodyStream body;
+
+        BodyOutputStream(ResponseBodyStream body) {
+            this.body = body;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            body.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            body.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            // 写入内存缓冲, 总是可写
+            try {
+                writeListener.onWritePossible();
+            } catch (Throwable e) {
+                writeListener.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.murongshian.mvc.render;
+
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.annotation.RequestMethod;
+import com.murongshian.mvc.cache.CachedResponse;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 渲染缓存的响应
+ * 无状态, 渲染的数据为handlerChain中的CachedResponse返回值; 经ResponseBodyStream写出, 压缩和ETag按每个请求处理
+ */
+public class CachedResponseRender implements Render {
+    /**
+     * 所有请求共用
+     */
+    public static final CachedResponseRender INSTANCE = new CachedResponseRender();
+
+    @Override
+    public void render(RequestHandlerChain handlerChain) throws Exception {
+        CachedResponse cached = (CachedResponse) handlerChain.getResult();
+        byte[] body = cached.getBody();
+        HttpServletResponse response = handlerChain.getResponse();
+        response.setStatus(handlerChain.getResponseStatus());
+        response.setContentType(cached.getContentType());
+        if (null != cached.getVary()) {
+            response.setHeader("Vary", cached.getVary());
+        }
+        // HEAD请求只返回响应头
+        if (RequestMethod.HEAD == handlerChain.getHttpMethod()) {
+            response.setContentLength(body.length);
+            return;
+        }
+        try (ResponseBodyStream out = new ResponseBodyStream(handlerChain.getRequest(), response)) {
+            out.write(body);
+        }
+    }
+}
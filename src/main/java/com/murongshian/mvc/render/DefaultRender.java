@@ -6,6 +6,11 @@ import com.murongshian.mvc.RequestHandlerChain;
  * 默认渲染 200
  */
 public class DefaultRender implements Render {
+    /**
+     * 无状态, 所有请求共用
+     */
+    public static final DefaultRender INSTANCE = new DefaultRender();
+
     @Override
     public void render(RequestHandlerChain handlerChain) {
         int status = handlerChain.getResponseStatus();
@@ -0,0 +1,109 @@
+package com.murongshian.mvc.render;
+
+import com.murongshian.util.HashUtil;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ETag的生成和If-None-Match的比较
+ * 响应内容的ETag是强ETag, 由响应字节的xxHash64生成; controller提供版本号时生成弱ETag, 不需要渲染响应
+ */
+public final class ETags {
+
+    /**
+     * 请求头If-None-Match
+     */
+    public static final String IF_NONE_MATCH = "If-None-Match";
+
+    /**
+     * 响应头ETag
+     */
+    public static final String ETAG = "ETag";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ETags() {
+    }
+
+    /**
+     * 由响应内容生成强ETag, 压缩后的响应附加编码名, 不同编码的响应ETag不同
+     *
+     * @param b        响应内容
+     * @param off      起始位置
+     * @param len      长度
+     * @param encoding 压缩编码, 不压缩时为null
+     * @return ETag
+     */
+    public static String ofContent(byte[] b, int off, int len, String encoding) {
+        StringBuilder etag = new StringBuilder(20 + (null == encoding ? 0 : encoding.length() + 1)).append('"');
+        appendHex(etag, HashUtil.xxHash64(b, off, len, 0));
+        if (null != encoding) {
+            etag.append('-').append(encoding);
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * 由controller提供的版本号生成弱ETag
+     *
+     * @param version 版本号
+     * @return ETag
+     */
+    public static String ofVersion(Object version) {
+        byte[] b = version.toString().getBytes(StandardCharsets.UTF_8);
+        StringBuilder etag = new StringBuilder(21).append("W/\"");
+        appendHex(etag, HashUtil.xxHash64(b, 0, b.length, 0));
+        return etag.append('"').toString();
+    }
+
+    /**
+     * 请求的If-None-Match是否与ETag匹配, 按弱比较, 即忽略W/前缀
+     *
+     * @param request 请求
+     * @param etag    ETag
+     * @return 是否匹配
+     */
+    public static boolean matches(HttpServletRequest request, String etag) {
+        String ifNoneMatch = request.getHeader(IF_NONE_MATCH);
+        if (null == ifNoneMatch) {
+            return false;
+        }
+        int tagStart = etag.startsWith("W/") ? 2 : 0;
+        int tagLength = etag.length() - tagStart;
+        int length = ifNoneMatch.length();
+        int pos = 0;
+        while (pos < length) {
+            char c = ifNoneMatch.charAt(pos);
+            if (c == ' ' || c == '\t' || c == ',') {
+                pos++;
+                continue;
+            }
+            if (c == '*') {
+                return true;
+            }
+            if (ifNoneMatch.startsWith("W/", pos)) {
+                pos += 2;
+            }
+            int end = ifNoneMatch.indexOf(',', pos);
+            if (end < 0) {
+                end = length;
+            }
+            int tagEnd = end;
+            while (tagEnd > pos && (ifNoneMatch.charAt(tagEnd - 1) == ' ' || ifNoneMatch.charAt(tagEnd - 1) == '\t')) {
+                tagEnd--;
+            }
+            if (tagEnd - pos == tagLength && ifNoneMatch.regionMatches(pos, etag, tagStart, tagLength)) {
+                return true;
+            }
+            pos = end + 1;
+        }
+        return false;
+    }
+
+    private static void appendHex(StringBuilder sb, long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            sb.append(HEX[(int) (value >>> shift) & 0xF]);
+        }
+    }
+}
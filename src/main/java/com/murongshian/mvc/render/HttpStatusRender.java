@@ -0,0 +1,28 @@
+package com.murongshian.mvc.render;
+
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.exception.HttpStatusException;
+import com.murongshian.mvc.exception.ServiceUnavailableException;
+
+/**
+ * 按HttpStatusException的状态码渲染错误页
+ */
+public class HttpStatusRender implements Render {
+    /**
+     * 无状态, 所有请求共用
+     */
+    public static final HttpStatusRender INSTANCE = new HttpStatusRender();
+
+    @Override
+    public void render(RequestHandlerChain handlerChain) throws Exception {
+        Exception exception = handlerChain.getException();
+        if (exception instanceof ServiceUnavailableException && ((ServiceUnavailableException) exception).getRetryAfter() > 0) {
+            handlerChain.getResponse().setHeader("Retry-After", String.valueOf(((ServiceUnavailableException) exception).getRetryAfter()));
+        }
+        if (exception instanceof HttpStatusException && null != exception.getMessage()) {
+            handlerChain.getResponse().sendError(handlerChain.getResponseStatus(), exception.getMessage());
+        } else {
+            handlerChain.getResponse().sendError(handlerChain.getResponseStatus());
+        }
+    }
+}
@@ -8,6 +8,11 @@ import javax.servlet.http.HttpServletResponse;
  * 渲染500
  */
 public class InternalErrorRender implements Render {
+    /**
+     * 无状态, 所有请求共用
+     */
+    public static final InternalErrorRender INSTANCE = new InternalErrorRender();
+
     @Override
     public void render(RequestHandlerChain handlerChain) throws Exception {
 		handlerChain.getResponse().sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
@@ -0,0 +1,34 @@
+package com.murongshian.mvc.render;
+
+import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.annotation.RequestMethod;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 渲染已序列化的json
+ * 无状态, 渲染的数据为handlerChain中的byte[]返回值, 多个请求可以共用同一个数组; 经ResponseBodyStream写出以便压缩
+ */
+public class JsonBytesRender implements Render {
+    /**
+     * 所有请求共用
+     */
+    public static final JsonBytesRender INSTANCE = new JsonBytesRender();
+
+    @Override
+    public void render(RequestHandlerChain handlerChain) throws Exception {
+        byte[] bytes = (byte[]) handlerChain.getResult();
+        HttpServletResponse response = handlerChain.getResponse();
+        response.setStatus(handlerChain.getResponseStatus());
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        // HEAD请求只返回响应头
+        if (RequestMethod.HEAD == handlerChain.getHttpMethod()) {
+            response.setContentLength(bytes.length);
+            return;
+        }
+        try (ResponseBodyStream out = new ResponseBodyStream(handlerChain.getRequest(), response)) {
+            out.write(bytes);
+        }
+    }
+}
@@ -1,27 +1,138 @@
 package com.murongshian.mvc.render;
 
-import com.alibaba.fastjson.JSON;
+import com.murongshian.Doodle;
 import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.annotation.RequestMethod;
+import com.murongshian.mvc.serializer.BinaryFormat;
+import com.murongshian.mvc.serializer.BinarySerializer;
+import com.murongshian.mvc.serializer.FastJsonSerializer;
+import com.murongshian.mvc.serializer.MessageSerializer;
+import com.murongshian.mvc.serializer.MessageSerializers;
+import com.murongshian.mvc.serializer.MessageWriter;
 
-import java.io.PrintWriter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
 
 /**
  * 渲染json
+ * 渲染的数据为handlerChain中的controller返回值; 每个路由在注册时按返回类型创建一个, 持有该类型的MessageWriter
+ * 直接序列化为UTF-8字节写入ResponseBodyStream, 不生成中间的String; 较小的输出带Content-Length, 较大的输出流式写出
+ * 开启二进制格式时, 请求头Accept包含application/x-doodle-binary的请求返回二进制格式
  */
 public class JsonRender implements Render {
-    private Object jsonData;
-    public JsonRender(Object jsonData) {
-        this.jsonData = jsonData;
+    /**
+     * 按运行时类型使用fastjson序列化, 所有请求共用
+     */
+    public static final JsonRender INSTANCE = new JsonRender(FastJsonSerializer.INSTANCE, null, Object.class);
+
+    /**
+     * 响应的Content-Type
+     */
+    private final String contentType;
+
+    /**
+     * 返回类型的序列化器
+     */
+    private final MessageWriter writer;
+
+    /**
+     * 返回类型的二进制序列化器, 未开启二进制格式时为null
+     */
+    private final MessageWriter binaryWriter;
+
+    /**
+     * @param serializer       序列化实现
+     * @param binarySerializer 二进制序列化实现, 为null时不协商
+     * @param type             返回值的声明类型
+     */
+    public JsonRender(MessageSerializer serializer, MessageSerializer binarySerializer, Class<?> type) {
+        this.contentType = serializer.getContentType();
+        this.writer = serializer.getWriter(type);
+        this.binaryWriter = null == binarySerializer ? null : binarySerializer.getWriter(type);
+    }
+
+    /**
+     * 为@ResponseBody方法创建, 序列化实现和返回类型在此时确定
+     */
+    public static JsonRender of(Method method) {
+        return new JsonRender(MessageSerializers.resolve(method),
+                Doodle.getConfiguration().isBinaryFormat() ? BinarySerializer.INSTANCE : null,
+                MessageSerializers.getBodyType(method));
     }
+
     @Override
     public void render(RequestHandlerChain handlerChain) throws Exception {
+        HttpServletResponse response = handlerChain.getResponse();
+        MessageWriter messageWriter = selectWriter(handlerChain.getRequest());
         // 设置响应头
-        handlerChain.getResponse().setContentType("application/json");
-        handlerChain.getResponse().setCharacterEncoding("UTF-8");
-        // 向响应中写入数据
-        try (PrintWriter writer = handlerChain.getResponse().getWriter()) {
-            writer.write(JSON.toJSONString(jsonData));
-            writer.flush();
+        response.setStatus(handlerChain.getResponseStatus());
+        if (isNegotiable()) {
+            response.setHeader("Vary", "Accept");
+        }
+        if (isBinary(messageWriter)) {
+            response.setContentType(BinaryFormat.CONTENT_TYPE);
+        } else {
+            response.setContentType(contentType);
+            response.setCharacterEncoding("UTF-8");
+        }
+        // HEAD请求只返回响应头, 不序列化
+        if (RequestMethod.HEAD == handlerChain.getHttpMethod()) {
+            return;
         }
+        // 向响应中写入数据; 序列化失败时丢弃已缓冲的内容, 响应未提交, 由处理链按异常响应
+        ResponseBodyStream out = new ResponseBodyStream(handlerChain.getRequest(), response);
+        try {
+            messageWriter.write(handlerChain.getResult(), out);
+        } catch (Throwable e) {
+            out.discard();
+            throw e;
+        }
+        out.close();
+    }
+
+    /**
+     * 按请求头Accept选择序列化器, 未开启二进制格式时总是json
+     *
+     * @param request 请求
+     * @return 序列化器
+     */
+    public MessageWriter selectWriter(HttpServletRequest request) {
+        if (null != binaryWriter) {
+            String accept = request.getHeader("Accept");
+            if (null != accept && accept.contains(BinaryFormat.CONTENT_TYPE)) {
+                return binaryWriter;
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * 是否为二进制格式的序列化器
+     */
+    public boolean isBinary(MessageWriter messageWriter) {
+        return null != binaryWriter && messageWriter == binaryWriter;
+    }
+
+    /**
+     * 是否按请求头Accept协商格式
+     */
+    public boolean isNegotiable() {
+        return null != binaryWriter;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * 序列化器对应的响应Content-Type, json包含字符集
+     */
+    public String getContentType(MessageWriter messageWriter) {
+        return isBinary(messageWriter) ? BinaryFormat.CONTENT_TYPE : contentType + ";charset=UTF-8";
+    }
+
+    public MessageWriter getWriter() {
+        return writer;
     }
-}
\ No newline at end of file
+}
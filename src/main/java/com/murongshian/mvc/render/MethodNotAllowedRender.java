@@ -0,0 +1,25 @@
+package com.murongshian.mvc.render;
+
+import com.murongshian.mvc.RequestHandlerChain;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 渲染405
+ */
+public class MethodNotAllowedRender implements Render {
+    /**
+     * 该路径允许的请求方法
+     */
+    private String allow;
+
+    public MethodNotAllowedRender(String allow) {
+        this.allow = allow;
+    }
+
+    @Override
+    public void render(RequestHandlerChain handlerChain) throws Exception {
+        handlerChain.getResponse().setHeader("Allow", allow);
+        handlerChain.getResponse().sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+    }
+}
@@ -8,6 +8,11 @@ import javax.servlet.http.HttpServletResponse;
  * 渲染404
  */
 public class NotFoundRender implements Render {
+    /**
+     * 无状态, 所有请求共用
+     */
+    public static final NotFoundRender INSTANCE = new NotFoundRender();
+
     @Override
     public void render(RequestHandlerChain handlerChain) throws Exception {
         handlerChain.getResponse().sendError(HttpServletResponse.SC_NOT_FOUND);
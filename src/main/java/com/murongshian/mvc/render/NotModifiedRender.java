@@ -0,0 +1,20 @@
+package com.murongshian.mvc.render;
+
+import com.murongshian.mvc.RequestHandlerChain;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 渲染304, 没有响应体, ETag响应头在比较时已设置
+ */
+public class NotModifiedRender implements Render {
+    /**
+     * 无状态, 所有请求共用
+     */
+    public static final NotModifiedRender INSTANCE = new NotModifiedRender();
+
+    @Override
+    public void render(RequestHandlerChain handlerChain) {
+        handlerChain.getResponse().setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+}
@@ -0,0 +1,25 @@
+package com.murongshian.mvc.render;
+
+import com.murongshian.mvc.RequestHandlerChain;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 渲染OPTIONS请求
+ */
+public class OptionsRender implements Render {
+    /**
+     * 该路径允许的请求方法
+     */
+    private String allow;
+
+    public OptionsRender(String allow) {
+        this.allow = allow;
+    }
+
+    @Override
+    public void render(RequestHandlerChain handlerChain) {
+        handlerChain.getResponse().setHeader("Allow", allow);
+        handlerChain.getResponse().setStatus(HttpServletResponse.SC_OK);
+    }
+}
@@ -0,0 +1,239 @@
+package com.murongshian.mvc.render;
+
+import com.murongshian.Doodle;
+import com.murongshian.mvc.compress.CompressingOutputStream;
+import com.murongshian.mvc.compress.Compression;
+import com.murongshian.mvc.compress.ContentEncoding;
+import com.murongshian.util.BufferPool;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 响应体输出流
+ * 先写入池化缓冲, 缓冲不够时换用更大一级的缓冲; 输出能放进最大一级缓冲时, close时设置Content-Length一次写出,
+ * 超出时把已缓冲的内容写到response后改为直接流式写出(chunked)
+ * 配置了Compression时, 请求接受的编码、响应类型和长度都满足条件的输出经压缩后写出, 不设置Content-Length
+ * 开启ETag时, close时按缓冲中的内容计算ETag, 与If-None-Match匹配时响应304且不写出响应体; 流式写出的输出没有ETag
+ * 每次渲染创建一个, 只在一个线程中使用, close后归还缓冲; 响应类型需要在写入前设置
+ */
+public class ResponseBodyStream extends OutputStream {
+
+    /**
+     * 按大小分级的缓冲池, 从小到大
+     */
+    private static final BufferPool[] BUFFER_POOLS = {
+            new BufferPool(8 * 1024, 256),
+            new BufferPool(64 * 1024, 32)
+    };
+
+    private final HttpServletRequest request;
+
+    private final HttpServletResponse response;
+
+    /**
+     * 压缩配置, 不压缩时为null
+     */
+    private final Compression compression;
+
+    /**
+     * 协商的压缩编码, 不压缩时为null
+     */
+    private final ContentEncoding encoding;
+
+    /**
+     * 当前缓冲, 已改为流式写出或已关闭时为null
+     */
+    private byte[] buffer;
+
+    /**
+     * 当前缓冲所在的级别
+     */
+    private int level;
+
+    /**
+     * 缓冲中的字节数
+     */
+    private int count;
+
+    /**
+     * 流式写出时的输出流, 压缩时为压缩输出流
+     */
+    private OutputStream out;
+
+    private boolean closed;
+
+    public ResponseBodyStream(HttpServletRequest request, HttpServletResponse response) {
+        this.request = request;
+        this.response = response;
+        Compression configured = Doodle.getConfiguration().getCompression();
+        if (null != configured && configured.isCompressible(response.getContentType())) {
+            // 响应随Accept-Encoding变化
+            response.addHeader("Vary", "Accept-Encoding");
+            this.compression = configured;
+            this.encoding = configured.negotiate(request);
+        } else {
+            this.compression = null;
+            this.encoding = null;
+        }
+        this.buffer = BUFFER_POOLS[0].acquire();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (null != out) {
+            out.write(b);
+            return;
+        }
+        ensureCapacity(1);
+        if (null != out) {
+            out.write(b);
+        } else {
+            buffer[count++] = (byte) b;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (null != out) {
+            out.write(b, off, len);
+            return;
+        }
+        ensureCapacity(len);
+        if (null != out) {
+            out.write(b, off, len);
+        } else {
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+    }
+
+    /**
+     * 输出是否仍全部在缓冲中
+     */
+    public boolean isBuffered() {
+        return null == out;
+    }
+
+    /**
+     * 缓冲中的字节数
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * 结束输出: 仍在缓冲中时设置Content-Length(或压缩)并一次写出, 然后归还缓冲
+     * 不关闭response的输出流, 由容器在请求结束时处理
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (null == out) {
+                boolean compress = null != encoding && count >= compression.getMinSize();
+                if (Doodle.getConfiguration().isEtag() && isNotModified(compress)) {
+                    return;
+                }
+                if (compress) {
+                    startStreaming();
+                } else {
+                    response.setContentLength(count);
+                    if (count > 0) {
+                        response.getOutputStream().write(buffer, 0, count);
+                    }
+                }
+            }
+            if (out instanceof CompressingOutputStream) {
+                ((CompressingOutputStream) out).finish();
+            }
+        } finally {
+            releaseBuffer();
+        }
+    }
+
+    /**
+     * 丢弃输出: 渲染失败时调用, 归还缓冲和压缩用的Deflater, 不写出仍在缓冲中的内容
+     * 已经开始流式写出时, 已写出的部分无法撤回, 压缩输出不写gzip尾
+     */
+    public void discard() {
+        closed = true;
+        if (out instanceof CompressingOutputStream) {
+            ((CompressingOutputStream) out).abort();
+        }
+        releaseBuffer();
+    }
+
+    /**
+     * 设置按缓冲内容计算的ETag, 返回是否与If-None-Match匹配, 匹配时设置304
+     * 只处理200的GET/HEAD响应, 已有ETag(controller提供的版本号)时不再计算
+     */
+    private boolean isNotModified(boolean compress) {
+        if (HttpServletResponse.SC_OK != response.getStatus() || response.containsHeader(ETags.ETAG)) {
+            return false;
+        }
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return false;
+        }
+        String etag = ETags.ofContent(buffer, 0, count, compress ? encoding.getValue() : null);
+        response.setHeader(ETags.ETAG, etag);
+        if (ETags.matches(request, etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 保证缓冲还能放下len个字节, 最大一级缓冲也放不下时改为流式写出
+     */
+    private void ensureCapacity(int len) throws IOException {
+        if (closed) {
+            throw new IOException("输出流已关闭");
+        }
+        if (count + len <= buffer.length) {
+            return;
+        }
+        int next = level + 1;
+        while (next < BUFFER_POOLS.length && count + len > BUFFER_POOLS[next].getBufferSize()) {
+            next++;
+        }
+        if (next < BUFFER_POOLS.length) {
+            byte[] larger = BUFFER_POOLS[next].acquire();
+            System.arraycopy(buffer, 0, larger, 0, count);
+            BUFFER_POOLS[level].release(buffer);
+            buffer = larger;
+            level = next;
+            return;
+        }
+        // 超过最大一级缓冲, 不设置Content-Length, 由容器使用chunked编码
+        startStreaming();
+        releaseBuffer();
+    }
+
+    /**
+     * 改为流式写出, 先写出已缓冲的内容
+     */
+    private void startStreaming() throws IOException {
+        if (null != encoding) {
+            response.setHeader("Content-Encoding", encoding.getValue());
+            out = compression.compress(response.getOutputStream(), encoding);
+        } else {
+            out = response.getOutputStream();
+        }
+        out.write(buffer, 0, count);
+    }
+
+    private void releaseBuffer() {
+        if (null != buffer) {
+            BUFFER_POOLS[level].release(buffer);
+            buffer = null;
+        }
+    }
+}
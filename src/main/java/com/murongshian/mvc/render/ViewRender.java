@@ -2,34 +2,57 @@ package com.murongshian.mvc.render;
 
 import com.murongshian.Doodle;
 import com.murongshian.mvc.RequestHandlerChain;
+import com.murongshian.mvc.annotation.RequestMethod;
 import com.murongshian.mvc.bean.ModelAndView;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.Map;
 
 /**
  * 渲染页面
+ * 无状态, 渲染的数据为handlerChain中的controller返回值, 可以是ModelAndView或者页面路径
+ * 开启ETag时页面先渲染到缓冲中, 与响应json一样计算ETag, If-None-Match匹配时响应304
  */
 public class ViewRender implements Render {
-    private ModelAndView mv;
+    /**
+     * 所有请求共用
+     */
+    public static final ViewRender INSTANCE = new ViewRender();
 
-    public ViewRender(Object mv) {
-        if (mv instanceof ModelAndView) {
-            this.mv = (ModelAndView) mv;
-        } else if (mv instanceof String) {
-            this.mv = new ModelAndView().setView((String) mv);
-        } else {
-            throw new RuntimeException("返回类型不合法");
-        }
-    }
     @Override
     public void render(RequestHandlerChain handlerChain) throws Exception {
         HttpServletRequest req = handlerChain.getRequest();
         HttpServletResponse resp = handlerChain.getResponse();
-        String path = mv.getView();
-        Map<String, Object> model = mv.getModel();
-        model.forEach(req::setAttribute);
-        req.getRequestDispatcher(Doodle.getConfiguration().getViewPath() + path).forward(req, resp);
+        Object result = handlerChain.getResult();
+        String path;
+        if (result instanceof ModelAndView) {
+            ModelAndView mv = (ModelAndView) result;
+            path = mv.getView();
+            mv.getModel().forEach(req::setAttribute);
+        } else if (result instanceof String) {
+            // 只有页面路径时不创建ModelAndView
+            path = (String) result;
+        } else {
+            throw new RuntimeException("返回类型不合法");
+        }
+        resp.setStatus(handlerChain.getResponseStatus());
+        // HEAD请求只返回响应头, 不渲染页面
+        if (RequestMethod.HEAD == handlerChain.getHttpMethod()) {
+            resp.setContentType("text/html;charset=UTF-8");
+            return;
+        }
+        String view = Doodle.getConfiguration().getViewPath() + path;
+        if (!Doodle.getConfiguration().isEtag()) {
+            req.getRequestDispatcher(view).forward(req, resp);
+            return;
+        }
+        BufferedViewResponse buffered = new BufferedViewResponse(req, resp);
+        try {
+            req.getRequestDispatcher(view).forward(req, buffered);
+        } catch (Exception e) {
+            buffered.discard();
+            throw e;
+        }
+        buffered.finish();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package com.murongshian.mvc.route;
+
+import com.murongshian.mvc.ControllerInfo;
+
+/**
+ * 路由匹配结果
+ * 路径变量只记录在请求路径中的起止位置, 用到时才截取, 同一个实例可以在多次请求间复用
+ */
+public class RouteMatch {
+
+    /**
+     * 请求路径
+     */
+    private String path;
+
+    /**
+     * 匹配到的controller信息
+     */
+    private ControllerInfo controllerInfo;
+
+    /**
+     * 匹配到的路由路径
+     */
+    private String pattern;
+
+    /**
+     * 路径变量名
+     */
+    private String[] variableNames;
+
+    /**
+     * 路径变量在请求路径中的起止位置, 两个一组
+     */
+    private int[] variableOffsets = new int[8];
+
+    /**
+     * 清空匹配结果
+     */
+    public void reset() {
+        path = null;
+        controllerInfo = null;
+        pattern = null;
+        variableNames = null;
+    }
+
+    /**
+     * 获取路径变量
+     *
+     * @param name 变量名
+     * @return 变量值, 不存在时返回null
+     */
+    public String getPathVariable(String name) {
+        if (null == variableNames) {
+            return null;
+        }
+        for (int i = 0; i < variableNames.length; i++) {
+            if (variableNames[i].equals(name)) {
+                return getPathVariable(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按出现顺序获取路径变量
+     *
+     * @param index 变量下标
+     * @return 变量值
+     */
+    public String getPathVariable(int index) {
+        return path.substring(variableOffsets[index << 1], variableOffsets[(index << 1) + 1]);
+    }
+
+    /**
+     * 路径变量个数
+     *
+     * @return 个数
+     */
+    public int getPathVariableCount() {
+        return null == variableNames ? 0 : variableNames.length;
+    }
+
+    public String[] getVariableNames() {
+        return variableNames;
+    }
+
+    public ControllerInfo getControllerInfo() {
+        return controllerInfo;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    void ensureCapacity(int variables) {
+        if (variableOffsets.length < variables << 1) {
+            variableOffsets = new int[variables << 1];
+        }
+    }
+
+    void setVariable(int index, int start, int end) {
+        variableOffsets[index << 1] = start;
+        variableOffsets[(index << 1) + 1] = end;
+    }
+
+    void matched(String path, ControllerInfo controllerInfo, String pattern, String[] variableNames) {
+        this.path = path;
+        this.controllerInfo = controllerInfo;
+        this.pattern = pattern;
+        this.variableNames = variableNames;
+    }
+}
@@ -0,0 +1,302 @@
+package com.murongshian.mvc.route;
+
+import com.murongshian.mvc.ControllerInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 路由前缀树
+ * 启动时把所有路由按路径段(以/分隔)插入树中, 调用compile()后树不可再修改
+ * 查找只比较请求路径的字符区间, 不截取子串也不创建临时对象, 耗时只与路径段数有关, 与路由数量无关
+ * 支持的路径段写法:
+ * 1.普通字符串, 如 /user/list
+ * 2.{name} 路径变量, 匹配任意单个路径段
+ * 3.* 匹配任意单个路径段
+ * 4.** 匹配剩余的所有路径段, 只能出现在最后
+ * 匹配优先级: 普通字符串 > 路径变量 > * > **
+ */
+public class RouteTrie {
+
+    /**
+     * 单个路径段通配符
+     */
+    public static final String WILDCARD = "*";
+
+    /**
+     * 剩余路径通配符
+     */
+    public static final String CATCH_ALL = "**";
+
+    /**
+     * 根节点
+     */
+    private final Node root = new Node();
+
+    /**
+     * 单条路由中最多的路径变量数
+     */
+    private int maxVariables;
+
+    /**
+     * 是否已编译
+     */
+    private boolean compiled;
+
+    /**
+     * 添加路由
+     *
+     * @param pattern        路由路径
+     * @param controllerInfo controller信息
+     * @return 该路径已存在时返回被覆盖的controller信息, 否则返回null
+     */
+    public ControllerInfo add(String pattern, ControllerInfo controllerInfo) {
+        if (compiled) {
+            throw new IllegalStateException("路由树已编译, 不能再添加路由: " + pattern);
+        }
+        List<String> variableNames = new ArrayList<>();
+        Node node = root;
+        String[] segments = pattern.split("/");
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (CATCH_ALL.equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("** 只能出现在路由最后: " + pattern);
+                }
+                if (null == node.catchAllChild) {
+                    node.catchAllChild = new Node();
+                }
+                node = node.catchAllChild;
+            } else if (WILDCARD.equals(segment)) {
+                if (null == node.wildcardChild) {
+                    node.wildcardChild = new Node();
+                }
+                node = node.wildcardChild;
+            } else if (segment.startsWith("{") && segment.endsWith("}")) {
+                String name = segment.substring(1, segment.length() - 1);
+                if (name.isEmpty() || variableNames.contains(name)) {
+                    throw new IllegalArgumentException("路径变量名为空或重复: " + pattern);
+                }
+                variableNames.add(name);
+                if (null == node.paramChild) {
+                    node.paramChild = new Node();
+                }
+                node = node.paramChild;
+            } else {
+                Node child = node.children.get(segment);
+                if (null == child) {
+                    child = new Node();
+                    node.children.put(segment, child);
+                }
+                node = child;
+            }
+        }
+        ControllerInfo old = node.controllerInfo;
+        node.controllerInfo = controllerInfo;
+        node.pattern = pattern;
+        node.variableNames = variableNames.toArray(new String[0]);
+        maxVariables = Math.max(maxVariables, variableNames.size());
+        return old;
+    }
+
+    /**
+     * 获取路由路径中的路径变量名
+     *
+     * @param pattern 路由路径
+     * @return 路径变量名, 按出现顺序
+     */
+    public static List<String> getVariableNames(String pattern) {
+        List<String> variableNames = new ArrayList<>();
+        for (String segment : pattern.split("/")) {
+            if (segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}")) {
+                variableNames.add(segment.substring(1, segment.length() - 1));
+            }
+        }
+        return variableNames;
+    }
+
+    /**
+     * 编译路由树, 编译后只读
+     */
+    public void compile() {
+        if (!compiled) {
+            root.compile();
+            compiled = true;
+        }
+    }
+
+    /**
+     * 查找路由
+     *
+     * @param path       请求路径
+     * @param routeMatch 用于存放匹配结果, 由调用方复用
+     * @return 是否匹配成功
+     */
+    public boolean match(String path, RouteMatch routeMatch) {
+        if (!compiled) {
+            throw new IllegalStateException("路由树未编译");
+        }
+        routeMatch.ensureCapacity(maxVariables);
+        Node node = match(root, path, 0, routeMatch, 0);
+        if (null == node) {
+            return false;
+        }
+        routeMatch.matched(path, node.controllerInfo, node.pattern, node.variableNames);
+        return true;
+    }
+
+    /**
+     * 递归匹配, 失败时回溯到优先级更低的分支
+     */
+    private Node match(Node node, String path, int pos, RouteMatch routeMatch, int variableIndex) {
+        int length = path.length();
+        while (pos < length && path.charAt(pos) == '/') {
+            pos++;
+        }
+        if (pos == length) {
+            if (null != node.controllerInfo) {
+                return node;
+            }
+            if (null != node.catchAllChild && null != node.catchAllChild.controllerInfo) {
+                return node.catchAllChild;
+            }
+            return null;
+        }
+        int end = path.indexOf('/', pos);
+        if (end < 0) {
+            end = length;
+        }
+        Node result;
+        Node child = node.findStatic(path, pos, end);
+        if (null != child) {
+            result = match(child, path, end, routeMatch, variableIndex);
+            if (null != result) {
+                return result;
+            }
+        }
+        if (null != node.paramChild) {
+            routeMatch.setVariable(variableIndex, pos, end);
+            result = match(node.paramChild, path, end, routeMatch, variableIndex + 1);
+            if (null != result) {
+                return result;
+            }
+        }
+        if (null != node.wildcardChild) {
+            result = match(node.wildcardChild, path, end, routeMatch, variableIndex);
+            if (null != result) {
+                return result;
+            }
+        }
+        if (null != node.catchAllChild && null != node.catchAllChild.controllerInfo) {
+            return node.catchAllChild;
+        }
+        return null;
+    }
+
+    /**
+     * 计算字符区间的hash, 与String.hashCode()结果一致
+     */
+    private static int hash(String s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 树节点, 每个节点对应一个路径段
+     */
+    private static final class Node {
+        /**
+         * 普通路径段子节点, 仅在构建期使用
+         */
+        private Map<String, Node> children = new HashMap<>();
+
+        /**
+         * 编译后的普通路径段子节点(开放寻址表)
+         */
+        private String[] staticKeys;
+        private Node[] staticNodes;
+        private int mask;
+
+        /**
+         * {name}子节点
+         */
+        private Node paramChild;
+
+        /**
+         * *子节点
+         */
+        private Node wildcardChild;
+
+        /**
+         * **子节点
+         */
+        private Node catchAllChild;
+
+        /**
+         * 路由终点的controller信息
+         */
+        private ControllerInfo controllerInfo;
+
+        /**
+         * 路由终点的路由路径
+         */
+        private String pattern;
+
+        /**
+         * 路由终点的路径变量名, 按出现顺序
+         */
+        private String[] variableNames;
+
+        private void compile() {
+            int capacity = 2;
+            while (capacity < children.size() * 2) {
+                capacity <<= 1;
+            }
+            staticKeys = new String[capacity];
+            staticNodes = new Node[capacity];
+            mask = capacity - 1;
+            for (Map.Entry<String, Node> entry : children.entrySet()) {
+                String key = entry.getKey();
+                int h = key.hashCode();
+                int index = (h ^ (h >>> 16)) & mask;
+                while (null != staticKeys[index]) {
+                    index = (index + 1) & mask;
+                }
+                staticKeys[index] = key;
+                staticNodes[index] = entry.getValue();
+                entry.getValue().compile();
+            }
+            children = null;
+            if (null != paramChild) {
+                paramChild.compile();
+            }
+            if (null != wildcardChild) {
+                wildcardChild.compile();
+            }
+            if (null != catchAllChild) {
+                catchAllChild.compile();
+            }
+        }
+
+        private Node findStatic(String path, int start, int end) {
+            int length = end - start;
+            int index = hash(path, start, end) & mask;
+            String key;
+            while (null != (key = staticKeys[index])) {
+                if (key.length() == length && path.regionMatches(start, key, 0, length)) {
+                    return staticNodes[index];
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.murongshian.mvc.serializer;
+
+import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.annotation.JSONType;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * POJO的一个属性
+ * 按fastjson的规则收集: public的getXxx/isXxx方法和public字段, 排除transient字段, 按属性名排序;
+ * getter生成为函数接口调用
+ */
+final class BeanProperty {
+
+    final String name;
+
+    final Class<?> type;
+
+    final Function<Object, Object> getter;
+
+    private BeanProperty(String name, Class<?> type, Function<Object, Object> getter) {
+        this.name = name;
+        this.type = type;
+        this.getter = getter;
+    }
+
+    /**
+     * 收集POJO的属性
+     *
+     * @return 不是POJO或需要fastjson处理注解时返回null
+     * @throws IllegalStateException 生成getter失败
+     */
+    static List<BeanProperty> collect(Class<?> type) {
+        if (type.isInterface() || type.isArray() || null == type.getPackage() || type.getName().startsWith("java")
+                || !Modifier.isPublic(type.getModifiers()) || hasJsonAnnotation(type)) {
+            return null;
+        }
+        Map<String, BeanProperty> properties = new TreeMap<>();
+        for (Method method : type.getMethods()) {
+            String name = getPropertyName(method);
+            if (null == name || isTransient(type, name)) {
+                continue;
+            }
+            properties.put(name, new BeanProperty(name, method.getReturnType(), getter(type, method)));
+        }
+        for (Field field : type.getFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || properties.containsKey(field.getName())) {
+                continue;
+            }
+            properties.put(field.getName(), new BeanProperty(field.getName(), field.getType(), getter(field)));
+        }
+        return new ArrayList<>(properties.values());
+    }
+
+    /**
+     * getXxx/isXxx方法对应的属性名, 与fastjson一致只把第一个字母转为小写
+     */
+    private static String getPropertyName(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() > 0
+                || void.class == method.getReturnType() || Object.class == method.getDeclaringClass()) {
+            return null;
+        }
+        String name = method.getName();
+        if (name.length() > 3 && name.startsWith("get") && Character.isUpperCase(name.charAt(3))) {
+            return Character.toLowerCase(name.charAt(3)) + name.substring(4);
+        }
+        if (name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2))
+                && boolean.class == method.getReturnType()) {
+            return Character.toLowerCase(name.charAt(2)) + name.substring(3);
+        }
+        return null;
+    }
+
+    private static boolean isTransient(Class<?> type, String name) {
+        for (Class<?> clz = type; null != clz && Object.class != clz; clz = clz.getSuperclass()) {
+            try {
+                return Modifier.isTransient(clz.getDeclaredField(name).getModifiers());
+            } catch (NoSuchFieldException e) {
+                // 查找父类
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasJsonAnnotation(Class<?> type) {
+        for (Class<?> clz = type; null != clz && Object.class != clz; clz = clz.getSuperclass()) {
+            if (clz.isAnnotationPresent(JSONType.class)) {
+                return true;
+            }
+            for (Field field : clz.getDeclaredFields()) {
+                if (field.isAnnotationPresent(JSONField.class)) {
+                    return true;
+                }
+            }
+            for (Method method : clz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(JSONField.class)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 生成getter的函数接口实现, 不能生成时使用MethodHandle
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Class<?> type, Method method) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(method);
+            if (Modifier.isPublic(method.getDeclaringClass().getModifiers())
+                    && method.getDeclaringClass().getClassLoader() == BeanProperty.class.getClassLoader()) {
+                CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+                        handle, MethodType.methodType(handle.type().wrap().returnType(), method.getDeclaringClass()));
+                return (Function<Object, Object>) callSite.getTarget().invoke();
+            }
+            return invoker(handle);
+        } catch (Throwable e) {
+            throw new IllegalStateException("生成getter失败: " + type.getName() + "." + method.getName(), e);
+        }
+    }
+
+    private static Function<Object, Object> getter(Field field) {
+        try {
+            return invoker(MethodHandles.lookup().unreflectGetter(field));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("生成getter失败: " + field, e);
+        }
+    }
+
+    private static Function<Object, Object> invoker(MethodHandle handle) {
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return target -> {
+            try {
+                return generic.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
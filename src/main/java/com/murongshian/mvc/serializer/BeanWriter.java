@@ -0,0 +1,90 @@
+package com.murongshian.mvc.serializer;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * FieldOrderSerializer中POJO的序列化器
+ * 属性顺序、预先编码的属性名和叶子类型属性的序列化器在创建时确定
+ */
+final class BeanWriter implements FieldOrderSerializer.ValueWriter {
+
+    private final FieldOrderSerializer serializer;
+
+    private final Property[] properties;
+
+    private BeanWriter(FieldOrderSerializer serializer, Property[] properties) {
+        this.serializer = serializer;
+        this.properties = properties;
+    }
+
+    /**
+     * 生成POJO的序列化器
+     *
+     * @return 不是POJO或需要fastjson处理注解时返回null
+     */
+    static BeanWriter create(Class<?> type, FieldOrderSerializer serializer) {
+        List<BeanProperty> beanProperties = BeanProperty.collect(type);
+        if (null == beanProperties) {
+            return null;
+        }
+        Property[] properties = new Property[beanProperties.size()];
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] = new Property(beanProperties.get(i));
+        }
+        return new BeanWriter(serializer, properties);
+    }
+
+    @Override
+    public void write(Object value, JsonOutput out, int depth) throws IOException {
+        out.write('{');
+        boolean first = true;
+        for (Property property : properties) {
+            Object propertyValue = property.getter.apply(value);
+            if (null == propertyValue) {
+                continue;
+            }
+            out.write(first ? property.firstName : property.name);
+            first = false;
+            if (null != property.writer) {
+                property.writer.write(propertyValue, out, depth + 1);
+            } else {
+                serializer.writeValue(propertyValue, out, depth + 1);
+            }
+        }
+        out.write('}');
+    }
+
+    /**
+     * 单个属性
+     */
+    private static final class Property {
+        /**
+         * 预先编码的 "name":
+         */
+        private final byte[] firstName;
+
+        /**
+         * 预先编码的 ,"name":
+         */
+        private final byte[] name;
+
+        private final Function<Object, Object> getter;
+
+        /**
+         * 属性类型为叶子类型时预先确定的序列化器, 否则按运行时类型查找
+         */
+        private final FieldOrderSerializer.ValueWriter writer;
+
+        private Property(BeanProperty property) {
+            this.firstName = ("\"" + property.name + "\":").getBytes(StandardCharsets.UTF_8);
+            this.name = (",\"" + property.name + "\":").getBytes(StandardCharsets.UTF_8);
+            this.getter = property.getter;
+            this.writer = property.type.isPrimitive() || Modifier.isFinal(property.type.getModifiers())
+                    ? FieldOrderSerializer.getLeafWriter(property.type) : null;
+        }
+    }
+}
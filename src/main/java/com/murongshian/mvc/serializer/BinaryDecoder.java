@@ -0,0 +1,216 @@
+package com.murongshian.mvc.serializer;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.TypeUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * doodle二进制格式的解码, 供java客户端使用, 格式见BinaryFormat
+ * 解码结果与fastjson解析对应json的结果相同: 对象为JSONObject, 数组为JSONArray, 整数为Integer或Long;
+ * 需要具体类型时按fastjson的规则转换; 长度和个数来自输入, 预分配有上限, 超过时随读取扩容, 截断的输入在读到结尾时报错;
+ * 嵌套层数与编码时的限制相同
+ */
+public final class BinaryDecoder {
+
+    /**
+     * 字节数组一次分配的上限
+     */
+    private static final int MAX_PREALLOCATED_BYTES = 8 * 1024;
+
+    /**
+     * 数组和对象预分配的元素个数上限
+     */
+    private static final int MAX_PREALLOCATED_ELEMENTS = 1024;
+
+    private final InputStream in;
+
+    /**
+     * 已出现的属性名
+     */
+    private final List<String> keys = new ArrayList<>();
+
+    private BinaryDecoder(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * 解码
+     *
+     * @param bytes 响应体
+     * @return JSONObject、JSONArray、String、数字、Boolean、byte[]或null
+     */
+    public static Object decode(byte[] bytes) throws IOException {
+        return decode(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * 从输入流解码, 不关闭输入流
+     */
+    public static Object decode(InputStream in) throws IOException {
+        BinaryDecoder decoder = new BinaryDecoder(in);
+        if (decoder.read() != BinaryFormat.MAGIC) {
+            throw new IOException("不是doodle二进制格式");
+        }
+        int version = decoder.read();
+        if (version != BinaryFormat.VERSION) {
+            throw new IOException("不支持的版本: " + version);
+        }
+        return decoder.readValue(0);
+    }
+
+    /**
+     * 解码并转换为指定类型
+     *
+     * @param bytes 响应体
+     * @param type  目标类型, 可以带泛型
+     */
+    public static <T> T decode(byte[] bytes, Type type) throws IOException {
+        return TypeUtils.cast(decode(bytes), type, ParserConfig.getGlobalInstance());
+    }
+
+    /**
+     * 读取一个值, 嵌套层数的计算与编码时相同, 数组和对象超过FieldOrderSerializer.MAX_DEPTH层时报错
+     */
+    private Object readValue(int depth) throws IOException {
+        int tag = read();
+        if (depth > FieldOrderSerializer.MAX_DEPTH && (BinaryFormat.ARRAY == tag || BinaryFormat.OBJECT == tag)) {
+            throw new IOException("嵌套层数超过" + FieldOrderSerializer.MAX_DEPTH);
+        }
+        switch (tag) {
+            case BinaryFormat.NULL:
+                return null;
+            case BinaryFormat.FALSE:
+                return Boolean.FALSE;
+            case BinaryFormat.TRUE:
+                return Boolean.TRUE;
+            case BinaryFormat.INT:
+                long value = readLong();
+                return value == (int) value ? (Object) (int) value : (Object) value;
+            case BinaryFormat.DOUBLE:
+                return Double.longBitsToDouble(readFixed(8));
+            case BinaryFormat.FLOAT:
+                return Float.intBitsToFloat((int) readFixed(4));
+            case BinaryFormat.STRING:
+                return new String(readBytes(), StandardCharsets.UTF_8);
+            case BinaryFormat.DECIMAL:
+                return new BigDecimal(new String(readBytes(), StandardCharsets.US_ASCII));
+            case BinaryFormat.BIG_INTEGER:
+                return new BigInteger(new String(readBytes(), StandardCharsets.US_ASCII));
+            case BinaryFormat.BYTES:
+                return readBytes();
+            case BinaryFormat.ARRAY:
+                int length = readLength();
+                JSONArray array = new JSONArray(Math.min(length, MAX_PREALLOCATED_ELEMENTS));
+                for (int i = 0; i < length; i++) {
+                    array.add(readValue(depth + 1));
+                }
+                return array;
+            case BinaryFormat.OBJECT:
+                int count = readLength();
+                JSONObject object = new JSONObject(Math.min(count, MAX_PREALLOCATED_ELEMENTS), true);
+                for (int i = 0; i < count; i++) {
+                    String key = readKey();
+                    object.put(key, readValue(depth + 1));
+                }
+                return object;
+            default:
+                throw new IOException("未知的类型: " + tag);
+        }
+    }
+
+    private String readKey() throws IOException {
+        long k = readVarint();
+        if ((k & 1) == 1) {
+            long index = k >>> 1;
+            if (index >= keys.size()) {
+                throw new IOException("属性名编号错误: " + index);
+            }
+            return keys.get((int) index);
+        }
+        long length = k >>> 1;
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("长度错误: " + length);
+        }
+        byte[] bytes = readFully((int) length);
+        String key = new String(bytes, StandardCharsets.UTF_8);
+        keys.add(key);
+        return key;
+    }
+
+    private int read() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = read();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("变长整数过长");
+    }
+
+    private long readLong() throws IOException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private int readLength() throws IOException {
+        long length = readVarint();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("长度错误: " + length);
+        }
+        return (int) length;
+    }
+
+    private long readFixed(int size) throws IOException {
+        long bits = 0;
+        for (int i = 0; i < size; i++) {
+            bits = (bits << 8) | read();
+        }
+        return bits;
+    }
+
+    private byte[] readBytes() throws IOException {
+        return readFully(readLength());
+    }
+
+    /**
+     * 读取指定长度的字节, 超过一次分配的上限时按读到的数据成倍扩容
+     */
+    private byte[] readFully(int length) throws IOException {
+        byte[] bytes = new byte[Math.min(length, MAX_PREALLOCATED_BYTES)];
+        int offset = 0;
+        while (offset < length) {
+            if (offset == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+            }
+            int n = in.read(bytes, offset, bytes.length - offset);
+            if (n < 0) {
+                throw new EOFException();
+            }
+            offset += n;
+        }
+        return bytes;
+    }
+}
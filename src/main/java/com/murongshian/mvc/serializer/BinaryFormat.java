@@ -0,0 +1,45 @@
+package com.murongshian.mvc.serializer;
+
+/**
+ * doodle二进制格式
+ * 消息以MAGIC和VERSION两个字节开头, 之后是一个值; 每个值以一个类型字节开头:
+ * <pre>
+ * NULL/FALSE/TRUE      无内容
+ * INT                  zigzag变长整数, 用于byte/short/int/long和Date(毫秒)
+ * DOUBLE/FLOAT         大端IEEE754, 8/4字节
+ * STRING               变长长度 + UTF-8, 也用于char和枚举名称
+ * DECIMAL/BIG_INTEGER  变长长度 + 十进制字符串
+ * BYTES                变长长度 + 原始字节
+ * ARRAY                变长元素个数 + 元素
+ * OBJECT               变长属性个数 + (属性名 + 值); 属性名为变长整数k, k为偶数时后跟k/2字节的UTF-8新属性名,
+ *                      按出现顺序编号; k为奇数时引用第k/2个已出现的属性名
+ * </pre>
+ * 与json一致, 值为null的属性和Map项不写出
+ */
+public final class BinaryFormat {
+
+    /**
+     * Content-Type
+     */
+    public static final String CONTENT_TYPE = "application/x-doodle-binary";
+
+    public static final int MAGIC = 0xD0;
+
+    public static final int VERSION = 1;
+
+    public static final int NULL = 0;
+    public static final int FALSE = 1;
+    public static final int TRUE = 2;
+    public static final int INT = 3;
+    public static final int DOUBLE = 4;
+    public static final int FLOAT = 5;
+    public static final int STRING = 6;
+    public static final int DECIMAL = 7;
+    public static final int BIG_INTEGER = 8;
+    public static final int BYTES = 9;
+    public static final int ARRAY = 10;
+    public static final int OBJECT = 11;
+
+    private BinaryFormat() {
+    }
+}
@@ -0,0 +1,88 @@
+package com.murongshian.mvc.serializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * BinarySerializer的输出, 每条消息一个, 记录已出现的属性名
+ * 直接写入输出流, 输出流应自带缓冲(如ResponseBodyStream)
+ */
+final class BinaryOutput {
+
+    private final OutputStream out;
+
+    /**
+     * 已出现的属性名及编号
+     */
+    private final Map<String, Integer> keys = new HashMap<>();
+
+    BinaryOutput(OutputStream out) {
+        this.out = out;
+    }
+
+    void writeTag(int tag) throws IOException {
+        out.write(tag);
+    }
+
+    /**
+     * 无符号变长整数, 每字节7位, 低位在前
+     */
+    void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * zigzag编码的有符号整数, 绝对值小的负数也只占很少字节
+     */
+    void writeLong(long value) throws IOException {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    void writeDouble(double value) throws IOException {
+        writeFixed(Double.doubleToRawLongBits(value), 8);
+    }
+
+    void writeFloat(float value) throws IOException {
+        writeFixed(Float.floatToRawIntBits(value), 4);
+    }
+
+    void writeBytes(byte[] bytes) throws IOException {
+        writeVarint(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    void writeString(String s) throws IOException {
+        writeBytes(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 写入属性名, 已出现过的写编号
+     *
+     * @param name  属性名
+     * @param utf8 属性名的UTF-8编码, 为null时现场编码
+     */
+    void writeKey(String name, byte[] utf8) throws IOException {
+        Integer index = keys.get(name);
+        if (null != index) {
+            writeVarint(((long) index << 1) | 1);
+            return;
+        }
+        keys.put(name, keys.size());
+        byte[] bytes = null == utf8 ? name.getBytes(StandardCharsets.UTF_8) : utf8;
+        writeVarint((long) bytes.length << 1);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private void writeFixed(long bits, int size) throws IOException {
+        for (int shift = (size - 1) << 3; shift >= 0; shift -= 8) {
+            out.write((int) (bits >>> shift) & 0xFF);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.murongshian.mvc.serializer;
+
+import com.alibaba.fastjson.JSON;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * doodle二进制格式的序列化, 格式见BinaryFormat
+ * 与FieldOrderSerializer一样每个类型只生成一次序列化器, POJO的属性顺序、属性名编码和getter在生成时确定;
+ * 带@JSONField/@JSONType的类型和其他类型先按fastjson转为json结构再编码, 保证与json响应内容一致
+ * 客户端用BinaryDecoder解码
+ */
+public class BinarySerializer implements MessageSerializer {
+    /**
+     * 所有路由共用
+     */
+    public static final BinarySerializer INSTANCE = new BinarySerializer();
+
+    private static final ValueWriter STRING = (value, out, depth) -> {
+        out.writeTag(BinaryFormat.STRING);
+        out.writeString(value.toString());
+    };
+
+    private static final ValueWriter INT = (value, out, depth) -> {
+        out.writeTag(BinaryFormat.INT);
+        out.writeLong(((Number) value).longValue());
+    };
+
+    private static final ValueWriter DOUBLE = (value, out, depth) -> {
+        out.writeTag(BinaryFormat.DOUBLE);
+        out.writeDouble((Double) value);
+    };
+
+    private static final ValueWriter FLOAT = (value, out, depth) -> {
+        out.writeTag(BinaryFormat.FLOAT);
+        out.writeFloat((Float) value);
+    };
+
+    private static final ValueWriter BOOLEAN = (value, out, depth) ->
+            out.writeTag((Boolean) value ? BinaryFormat.TRUE : BinaryFormat.FALSE);
+
+    private static final ValueWriter ENUM = (value, out, depth) -> {
+        out.writeTag(BinaryFormat.STRING);
+        out.writeString(((Enum<?>) value).name());
+    };
+
+    private static final ValueWriter DECIMAL = (value, out, depth) -> {
+        out.writeTag(BinaryFormat.DECIMAL);
+        out.writeString(value.toString());
+    };
+
+    private static final ValueWriter BIG_INTEGER = (value, out, depth) -> {
+        out.writeTag(BinaryFormat.BIG_INTEGER);
+        out.writeString(value.toString());
+    };
+
+    private static final ValueWriter BYTES = (value, out, depth) -> {
+        out.writeTag(BinaryFormat.BYTES);
+        out.writeBytes((byte[]) value);
+    };
+
+    private static final ValueWriter DATE = (value, out, depth) -> {
+        out.writeTag(BinaryFormat.INT);
+        out.writeLong(((Date) value).getTime());
+    };
+
+    /**
+     * 已生成的类型序列化器
+     */
+    private final Map<Class<?>, ValueWriter> valueWriters = new ConcurrentHashMap<>();
+
+    /**
+     * 已生成的MessageWriter
+     */
+    private final Map<Class<?>, MessageWriter> writers = new ConcurrentHashMap<>();
+
+    private final ValueWriter collectionWriter = (value, out, depth) -> {
+        Collection<?> collection = (Collection<?>) value;
+        out.writeTag(BinaryFormat.ARRAY);
+        out.writeVarint(collection.size());
+        for (Object element : collection) {
+            writeValue(element, out, depth + 1);
+        }
+    };
+
+    private final ValueWriter arrayWriter = (value, out, depth) -> {
+        int length = Array.getLength(value);
+        out.writeTag(BinaryFormat.ARRAY);
+        out.writeVarint(length);
+        for (int i = 0; i < length; i++) {
+            writeValue(Array.get(value, i), out, depth + 1);
+        }
+    };
+
+    private final ValueWriter mapWriter = (value, out, depth) -> {
+        Map<?, ?> map = (Map<?, ?>) value;
+        int count = 0;
+        for (Object entryValue : map.values()) {
+            if (null != entryValue) {
+                count++;
+            }
+        }
+        out.writeTag(BinaryFormat.OBJECT);
+        out.writeVarint(count);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (null != entry.getValue()) {
+                out.writeKey(String.valueOf(entry.getKey()), null);
+                writeValue(entry.getValue(), out, depth + 1);
+            }
+        }
+    };
+
+    /**
+     * 先按fastjson转为json结构
+     */
+    private final ValueWriter fastjsonWriter = (value, out, depth) ->
+            writeValue(JSON.parse(JSON.toJSONString(value)), out, depth);
+
+    @Override
+    public String getContentType() {
+        return BinaryFormat.CONTENT_TYPE;
+    }
+
+    @Override
+    public MessageWriter getWriter(Class<?> type) {
+        return writers.computeIfAbsent(type, this::createWriter);
+    }
+
+    private MessageWriter createWriter(Class<?> type) {
+        ValueWriter declared = Object.class == type || type.isPrimitive() ? null : getValueWriter(type);
+        return (value, out) -> {
+            out.write(BinaryFormat.MAGIC);
+            out.write(BinaryFormat.VERSION);
+            BinaryOutput output = new BinaryOutput(out);
+            if (null == value) {
+                output.writeTag(BinaryFormat.NULL);
+            } else if (null != declared && value.getClass() == type) {
+                declared.write(value, output, 0);
+            } else {
+                writeValue(value, output, 0);
+            }
+        };
+    }
+
+    /**
+     * 按运行时类型写出
+     */
+    private void writeValue(Object value, BinaryOutput out, int depth) throws IOException {
+        if (null == value) {
+            out.writeTag(BinaryFormat.NULL);
+            return;
+        }
+        if (depth > FieldOrderSerializer.MAX_DEPTH) {
+            throw new IllegalStateException("序列化嵌套过深, 可能存在循环引用: " + value.getClass().getName());
+        }
+        getValueWriter(value.getClass()).write(value, out, depth);
+    }
+
+    private ValueWriter getValueWriter(Class<?> type) {
+        ValueWriter writer = valueWriters.get(type);
+        if (null == writer) {
+            writer = valueWriters.computeIfAbsent(type, this::createValueWriter);
+        }
+        return writer;
+    }
+
+    private ValueWriter createValueWriter(Class<?> type) {
+        if (String.class == type || Character.class == type) {
+            return STRING;
+        }
+        if (Integer.class == type || Long.class == type || Short.class == type || Byte.class == type
+                || AtomicInteger.class == type || AtomicLong.class == type) {
+            return INT;
+        }
+        if (Double.class == type) {
+            return DOUBLE;
+        }
+        if (Float.class == type) {
+            return FLOAT;
+        }
+        if (Boolean.class == type) {
+            return BOOLEAN;
+        }
+        if (Enum.class.isAssignableFrom(type)) {
+            return ENUM;
+        }
+        if (BigDecimal.class == type) {
+            return DECIMAL;
+        }
+        if (BigInteger.class == type) {
+            return BIG_INTEGER;
+        }
+        if (byte[].class == type) {
+            return BYTES;
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return DATE;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return collectionWriter;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return mapWriter;
+        }
+        if (type.isArray()) {
+            return arrayWriter;
+        }
+        try {
+            List<BeanProperty> properties = BeanProperty.collect(type);
+            return null == properties ? fastjsonWriter : new BeanWriter(properties);
+        } catch (IllegalStateException e) {
+            System.err.println("生成二进制BeanWriter失败, 使用fastjson: " + e);
+            return fastjsonWriter;
+        }
+    }
+
+    /**
+     * 单个类型的序列化器
+     */
+    private interface ValueWriter {
+        /**
+         * @param value 不为null
+         * @param depth 嵌套层数
+         */
+        void write(Object value, BinaryOutput out, int depth) throws IOException;
+    }
+
+    /**
+     * POJO的序列化器, 属性顺序和属性名编码在创建时确定
+     */
+    private final class BeanWriter implements ValueWriter {
+
+        private final String[] names;
+
+        private final byte[][] encodedNames;
+
+        private final Function<Object, Object>[] getters;
+
+        @SuppressWarnings("unchecked")
+        private BeanWriter(List<BeanProperty> properties) {
+            int size = properties.size();
+            names = new String[size];
+            encodedNames = new byte[size][];
+            getters = new Function[size];
+            for (int i = 0; i < size; i++) {
+                names[i] = properties.get(i).name;
+                encodedNames[i] = names[i].getBytes(StandardCharsets.UTF_8);
+                getters[i] = properties.get(i).getter;
+            }
+        }
+
+        @Override
+        public void write(Object value, BinaryOutput out, int depth) throws IOException {
+            // 先取出所有属性值, 才能写出非null属性的个数
+            Object[] values = new Object[getters.length];
+            int count = 0;
+            for (int i = 0; i < getters.length; i++) {
+                values[i] = getters[i].apply(value);
+                if (null != values[i]) {
+                    count++;
+                }
+            }
+            out.writeTag(BinaryFormat.OBJECT);
+            out.writeVarint(count);
+            for (int i = 0; i < values.length; i++) {
+                if (null != values[i]) {
+                    out.writeKey(names[i], encodedNames[i]);
+                    writeValue(values[i], out, depth + 1);
+                }
+            }
+        }
+    }
+}
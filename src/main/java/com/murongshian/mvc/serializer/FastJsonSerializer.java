@@ -0,0 +1,69 @@
+package com.murongshian.mvc.serializer;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * fastjson序列化
+ * 声明类型为具体类时, 创建MessageWriter时就取得fastjson的ObjectSerializer, 返回值正好是该类型时直接使用;
+ * 其他情况(子类、接口、Object)交给fastjson按运行时类型查找
+ */
+public class FastJsonSerializer implements MessageSerializer {
+    /**
+     * 无状态, 所有路由共用
+     */
+    public static final FastJsonSerializer INSTANCE = new FastJsonSerializer();
+
+    private static final SerializerFeature[] NO_FEATURES = new SerializerFeature[0];
+
+    /**
+     * 按运行时类型查找
+     */
+    private static final MessageWriter DYNAMIC = (value, out) -> write(value, out, null);
+
+    private final Map<Class<?>, MessageWriter> writers = new ConcurrentHashMap<>();
+
+    @Override
+    public String getContentType() {
+        return "application/json";
+    }
+
+    @Override
+    public MessageWriter getWriter(Class<?> type) {
+        return writers.computeIfAbsent(type, FastJsonSerializer::createWriter);
+    }
+
+    private static MessageWriter createWriter(Class<?> type) {
+        if (Object.class == type || type.isPrimitive() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return DYNAMIC;
+        }
+        ObjectSerializer objectSerializer = SerializeConfig.getGlobalInstance().getObjectWriter(type);
+        return (value, out) -> write(value, out, null != value && value.getClass() == type ? objectSerializer : null);
+    }
+
+    private static void write(Object value, OutputStream out, ObjectSerializer objectSerializer) throws IOException {
+        SerializeWriter writer = new SerializeWriter(null, JSON.DEFAULT_GENERATE_FEATURE, NO_FEATURES);
+        try {
+            JSONSerializer serializer = new JSONSerializer(writer, SerializeConfig.getGlobalInstance());
+            if (null == objectSerializer) {
+                serializer.write(value);
+            } else {
+                objectSerializer.write(serializer, value, null, null, 0);
+            }
+            writer.writeToEx(out, StandardCharsets.UTF_8);
+        } finally {
+            writer.close();
+        }
+    }
+}
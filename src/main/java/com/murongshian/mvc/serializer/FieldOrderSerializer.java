@@ -0,0 +1,209 @@
+package com.murongshian.mvc.serializer;
+
+import com.alibaba.fastjson.JSON;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 预编译的json序列化
+ * 每个POJO类型第一次用到时生成一个BeanWriter: 属性按名称排序固定下来, 属性名预先编码为字节, getter生成为函数接口调用;
+ * 序列化时直接按属性表写出UTF-8字节, 不再做类型内省
+ * 输出与fastjson默认配置一致: 属性按名称排序, 忽略null属性和transient字段, 枚举输出名称;
+ * 带@JSONField/@JSONType的类型、Date等其他类型交给fastjson
+ * 不检测循环引用, 嵌套超过MAX_DEPTH层时抛出异常
+ */
+public class FieldOrderSerializer implements MessageSerializer {
+
+    /**
+     * 最大嵌套层数
+     */
+    static final int MAX_DEPTH = 128;
+
+    private static final ValueWriter STRING = (value, out, depth) -> out.writeString(value.toString());
+
+    private static final ValueWriter NUMBER = (value, out, depth) -> out.writeAscii(value.toString());
+
+    private static final ValueWriter FLOATING = (value, out, depth) -> {
+        double d = ((Number) value).doubleValue();
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            out.writeNull();
+        } else {
+            out.writeAscii(value.toString());
+        }
+    };
+
+    private static final ValueWriter BOOLEAN = (value, out, depth) -> out.writeAscii((Boolean) value ? "true" : "false");
+
+    private static final ValueWriter ENUM = (value, out, depth) -> out.writeString(((Enum<?>) value).name());
+
+    private static final ValueWriter FASTJSON = (value, out, depth) -> out.write(JSON.toJSONBytes(value));
+
+    /**
+     * 已生成的类型序列化器
+     */
+    private final Map<Class<?>, ValueWriter> valueWriters = new ConcurrentHashMap<>();
+
+    /**
+     * 已生成的MessageWriter
+     */
+    private final Map<Class<?>, MessageWriter> writers = new ConcurrentHashMap<>();
+
+    private final ValueWriter collectionWriter = (value, out, depth) -> {
+        out.write('[');
+        boolean first = true;
+        for (Object element : (Collection<?>) value) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            writeValue(element, out, depth + 1);
+        }
+        out.write(']');
+    };
+
+    private final ValueWriter arrayWriter = (value, out, depth) -> {
+        out.write('[');
+        int length = Array.getLength(value);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeValue(Array.get(value, i), out, depth + 1);
+        }
+        out.write(']');
+    };
+
+    private final ValueWriter mapWriter = (value, out, depth) -> {
+        out.write('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            if (null == entry.getValue()) {
+                continue;
+            }
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.writeString(String.valueOf(entry.getKey()));
+            out.write(':');
+            writeValue(entry.getValue(), out, depth + 1);
+        }
+        out.write('}');
+    };
+
+    @Override
+    public String getContentType() {
+        return "application/json";
+    }
+
+    @Override
+    public MessageWriter getWriter(Class<?> type) {
+        return writers.computeIfAbsent(type, this::createWriter);
+    }
+
+    private MessageWriter createWriter(Class<?> type) {
+        ValueWriter declared = Object.class == type || type.isPrimitive() ? null : getValueWriter(type);
+        return (value, out) -> {
+            JsonOutput output = new JsonOutput(out);
+            if (null == value) {
+                output.writeNull();
+            } else if (null != declared && value.getClass() == type) {
+                declared.write(value, output, 0);
+            } else {
+                writeValue(value, output, 0);
+            }
+        };
+    }
+
+    /**
+     * 按运行时类型写出
+     */
+    void writeValue(Object value, JsonOutput out, int depth) throws IOException {
+        if (null == value) {
+            out.writeNull();
+            return;
+        }
+        if (depth > MAX_DEPTH) {
+            throw new IllegalStateException("序列化嵌套过深, 可能存在循环引用: " + value.getClass().getName());
+        }
+        getValueWriter(value.getClass()).write(value, out, depth);
+    }
+
+    /**
+     * 获取类型的序列化器, 每个类型只生成一次
+     */
+    ValueWriter getValueWriter(Class<?> type) {
+        ValueWriter writer = valueWriters.get(type);
+        if (null == writer) {
+            // 生成BeanWriter时不解析属性类型, 不会递归调用computeIfAbsent
+            writer = valueWriters.computeIfAbsent(type, this::createValueWriter);
+        }
+        return writer;
+    }
+
+    /**
+     * 叶子类型的序列化器, 不是叶子类型时返回null
+     */
+    static ValueWriter getLeafWriter(Class<?> type) {
+        if (String.class == type || Character.class == type || char.class == type) {
+            return STRING;
+        }
+        if (Integer.class == type || Long.class == type || Short.class == type || Byte.class == type
+                || int.class == type || long.class == type || short.class == type || byte.class == type
+                || BigInteger.class == type || BigDecimal.class == type || AtomicInteger.class == type || AtomicLong.class == type) {
+            return NUMBER;
+        }
+        if (Double.class == type || Float.class == type || double.class == type || float.class == type) {
+            return FLOATING;
+        }
+        if (Boolean.class == type || boolean.class == type) {
+            return BOOLEAN;
+        }
+        if (Enum.class.isAssignableFrom(type)) {
+            return ENUM;
+        }
+        return null;
+    }
+
+    private ValueWriter createValueWriter(Class<?> type) {
+        ValueWriter leaf = getLeafWriter(type);
+        if (null != leaf) {
+            return leaf;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return collectionWriter;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return mapWriter;
+        }
+        if (type.isArray() && !type.getComponentType().isPrimitive()) {
+            return arrayWriter;
+        }
+        try {
+            BeanWriter beanWriter = BeanWriter.create(type, this);
+            return null == beanWriter ? FASTJSON : beanWriter;
+        } catch (IllegalStateException e) {
+            System.err.println("生成BeanWriter失败, 使用fastjson: " + e);
+            return FASTJSON;
+        }
+    }
+
+    /**
+     * 单个类型的序列化器
+     */
+    interface ValueWriter {
+        /**
+         * @param value 不为null
+         * @param depth 嵌套层数
+         */
+        void write(Object value, JsonOutput out, int depth) throws IOException;
+    }
+}
@@ -0,0 +1,104 @@
+package com.murongshian.mvc.serializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * FieldOrderSerializer的json输出
+ * 直接把UTF-8字节写入输出流, 输出流应自带缓冲(如ResponseBodyStream)
+ */
+final class JsonOutput {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+
+    JsonOutput(OutputStream out) {
+        this.out = out;
+    }
+
+    void write(int b) throws IOException {
+        out.write(b);
+    }
+
+    void write(byte[] bytes) throws IOException {
+        out.write(bytes, 0, bytes.length);
+    }
+
+    void writeNull() throws IOException {
+        out.write(NULL, 0, NULL.length);
+    }
+
+    /**
+     * 写入不需要转义的ASCII字符串, 如数字
+     */
+    void writeAscii(String s) throws IOException {
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            out.write(s.charAt(i));
+        }
+    }
+
+    /**
+     * 写入带双引号的字符串, 与fastjson默认配置相同: 转义控制字符、双引号、反斜杠和行/段分隔符
+     */
+    void writeString(String s) throws IOException {
+        out.write('"');
+        int length = s.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\' || c == '\u2028' || c == '\u2029') {
+                writeUtf8(s, start, i);
+                start = i + 1;
+                out.write('\\');
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        out.write(c);
+                        break;
+                    case '\b':
+                        out.write('b');
+                        break;
+                    case '\f':
+                        out.write('f');
+                        break;
+                    case '\n':
+                        out.write('n');
+                        break;
+                    case '\r':
+                        out.write('r');
+                        break;
+                    case '\t':
+                        out.write('t');
+                        break;
+                    default:
+                        out.write('u');
+                        out.write(HEX[(c >> 12) & 0xF]);
+                        out.write(HEX[(c >> 8) & 0xF]);
+                        out.write(HEX[(c >> 4) & 0xF]);
+                        out.write(HEX[c & 0xF]);
+                }
+            }
+        }
+        writeUtf8(s, start, length);
+        out.write('"');
+    }
+
+    /**
+     * 按UTF-8写入字符区间, 全为ASCII时逐字节写入, 否则整段编码
+     */
+    private void writeUtf8(String s, int start, int end) throws IOException {
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) >= 0x80) {
+                byte[] bytes = s.substring(i, end).getBytes(StandardCharsets.UTF_8);
+                out.write(bytes, 0, bytes.length);
+                return;
+            }
+            out.write(s.charAt(i));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.murongshian.mvc.serializer;
+
+/**
+ * 响应体序列化SPI
+ * 全局默认实现通过Configuration.messageSerializer设置, 单个controller或方法可以用@SerializeWith指定;
+ * 路由注册时按controller方法声明的返回类型取得MessageWriter, 请求处理时不再按类型查找
+ * 实现类需要线程安全, 并提供无参构造方法
+ */
+public interface MessageSerializer {
+
+    /**
+     * 响应的Content-Type
+     *
+     * @return Content-Type, 不含charset
+     */
+    String getContentType();
+
+    /**
+     * 获取类型的序列化器, 同一类型多次调用应返回缓存的实例
+     *
+     * @param type 声明类型
+     * @return 序列化器
+     */
+    MessageWriter getWriter(Class<?> type);
+}
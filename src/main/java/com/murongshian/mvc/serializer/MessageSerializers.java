@@ -0,0 +1,74 @@
+package com.murongshian.mvc.serializer;
+
+import com.murongshian.Doodle;
+import com.murongshian.core.BeanContainer;
+import com.murongshian.mvc.annotation.SerializeWith;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 路由注册时查找序列化实现
+ */
+public final class MessageSerializers {
+
+    /**
+     * 按实现类缓存的实例
+     */
+    private static final Map<Class<?>, MessageSerializer> INSTANCES = new ConcurrentHashMap<>();
+
+    private MessageSerializers() {
+    }
+
+    /**
+     * 方法使用的序列化实现: 方法上的@SerializeWith, 类上的@SerializeWith, 全局默认
+     */
+    public static MessageSerializer resolve(Method method) {
+        SerializeWith serializeWith = method.isAnnotationPresent(SerializeWith.class)
+                ? method.getAnnotation(SerializeWith.class) : method.getDeclaringClass().getAnnotation(SerializeWith.class);
+        if (null == serializeWith) {
+            return Doodle.getConfiguration().getMessageSerializer();
+        }
+        return INSTANCES.computeIfAbsent(serializeWith.value(), MessageSerializers::create);
+    }
+
+    /**
+     * 方法返回值的声明类型, CompletionStage取其泛型参数, 无法确定时为Object
+     */
+    public static Class<?> getBodyType(Method method) {
+        Class<?> type = method.getReturnType();
+        if (!CompletionStage.class.isAssignableFrom(type)) {
+            return type;
+        }
+        Type genericType = method.getGenericReturnType();
+        if (genericType instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                return (Class<?>) argument;
+            }
+            if (argument instanceof ParameterizedType) {
+                return (Class<?>) ((ParameterizedType) argument).getRawType();
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * 优先使用容器中的bean, 否则通过无参构造方法创建
+     */
+    private static MessageSerializer create(Class<?> clz) {
+        Object bean = BeanContainer.getInstance().getBean(clz);
+        if (null != bean) {
+            return (MessageSerializer) bean;
+        }
+        try {
+            return (MessageSerializer) clz.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("无法创建序列化实现: " + clz.getName(), e);
+        }
+    }
+}
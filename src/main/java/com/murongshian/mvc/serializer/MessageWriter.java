@@ -0,0 +1,18 @@
+package com.murongshian.mvc.serializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 某个类型的序列化器, 由MessageSerializer按类型创建并缓存, 线程安全
+ */
+public interface MessageWriter {
+
+    /**
+     * 序列化并写入输出流
+     *
+     * @param value 返回值, 可以是声明类型的子类或null
+     * @param out   输出流, 不关闭
+     */
+    void write(Object value, OutputStream out) throws IOException;
+}
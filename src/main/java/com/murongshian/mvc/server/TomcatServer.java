@@ -3,6 +3,7 @@ package com.murongshian.mvc.server;
 import com.murongshian.Configuration;
 import com.murongshian.mvc.DispatcherServlet;
 import com.murongshian.Doodle;
+import org.apache.catalina.Wrapper;
 import org.apache.catalina.WebResourceRoot;
 import org.apache.catalina.core.StandardContext;
 import org.apache.catalina.startup.Tomcat;
@@ -45,7 +46,10 @@ public class TomcatServer implements Server {
 
             // 去除了JspHandler和SimpleUrlHandler这两个servlet的注册
 
-            tomcat.addServlet(configuration.getContextPath(), "dispatcherServlet", new DispatcherServlet()).setLoadOnStartup(0);
+            Wrapper dispatcherServlet = tomcat.addServlet(configuration.getContextPath(), "dispatcherServlet", new DispatcherServlet());
+            dispatcherServlet.setLoadOnStartup(0);
+            // 支持controller返回CompletionStage时的异步处理
+            dispatcherServlet.setAsyncSupported(true);
             ctx.addServletMappingDecoded("/*", "dispatcherServlet");
         } catch (Exception e) {
             System.err.println("初始化Tomcat失败" + e);
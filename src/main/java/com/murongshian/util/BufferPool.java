@@ -0,0 +1,94 @@
+package com.murongshian.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 固定大小的byte[]缓冲池
+ * 缓冲存放在固定数量的槽位中, 取用和归还都是对槽位的CAS操作, 不加锁也不创建节点对象
+ * 池中没有可用缓冲时直接新建, 池满时归还的缓冲直接丢弃
+ */
+public final class BufferPool {
+
+    /**
+     * 每次取用或归还时最多尝试的槽位数
+     */
+    private static final int MAX_PROBES = 4;
+
+    /**
+     * 缓冲大小
+     */
+    private final int bufferSize;
+
+    /**
+     * 缓冲槽位
+     */
+    private final AtomicReferenceArray<byte[]> slots;
+
+    /**
+     * 槽位数减一, 槽位数为2的幂
+     */
+    private final int mask;
+
+    /**
+     * @param bufferSize 缓冲大小
+     * @param maxPooled  最多缓存的缓冲数, 会向上取为2的幂
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        int capacity = 1;
+        while (capacity < maxPooled) {
+            capacity <<= 1;
+        }
+        this.bufferSize = bufferSize;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 取用缓冲
+     *
+     * @return 缓冲, 内容未清空
+     */
+    public byte[] acquire() {
+        int start = probeStart();
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int index = (start + i) & mask;
+            if (null != slots.get(index)) {
+                byte[] buffer = slots.getAndSet(index, null);
+                if (null != buffer) {
+                    return buffer;
+                }
+            }
+        }
+        return new byte[bufferSize];
+    }
+
+    /**
+     * 归还缓冲
+     *
+     * @param buffer 通过acquire取得的缓冲
+     */
+    public void release(byte[] buffer) {
+        if (null == buffer || buffer.length != bufferSize) {
+            return;
+        }
+        int start = probeStart();
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int index = (start + i) & mask;
+            if (null == slots.get(index) && slots.compareAndSet(index, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 不同线程从不同槽位开始查找, 减少竞争
+     */
+    private int probeStart() {
+        long id = Thread.currentThread().getId();
+        return (int) (id * 0x9E3779B9L) & mask;
+    }
+}
@@ -1,5 +1,8 @@
 package com.murongshian.util;
 
+import com.murongshian.mvc.convert.Converter;
+import com.murongshian.mvc.convert.ConverterRegistry;
+
 /**
  * 转换工具类
  */
@@ -7,37 +10,21 @@ public final class CastUtil {
 
     /**
      * String类型转换成对应类型
+     * 每次调用都会查找转换器, 频繁调用时应先通过ConverterRegistry获取转换器并缓存
      *
      * @param type  转换的类
      * @param value 值
      * @return 转换后的Object
      */
     public static Object convert(Class<?> type, String value) {
-        if (isPrimitive(type)) {
-            if (ValidateUtil.isEmpty(value)) {
-                return primitiveNull(type);
-            }
-            if (type.equals(int.class) || type.equals(Integer.class)) {
-                return Integer.parseInt(value);
-            } else if (type.equals(String.class)) {
-                return value;
-            } else if (type.equals(Double.class) || type.equals(double.class)) {
-                return Double.parseDouble(value);
-            } else if (type.equals(Float.class) || type.equals(float.class)) {
-                return Float.parseFloat(value);
-            } else if (type.equals(Long.class) || type.equals(long.class)) {
-                return Long.parseLong(value);
-            } else if (type.equals(Boolean.class) || type.equals(boolean.class)) {
-                return Boolean.parseBoolean(value);
-            } else if (type.equals(Short.class) || type.equals(short.class)) {
-                return Short.parseShort(value);
-            } else if (type.equals(Byte.class) || type.equals(byte.class)) {
-                return Byte.parseByte(value);
-            }
-            return value;
-        } else {
+        Converter<?> converter = ConverterRegistry.getInstance().getConverter(type);
+        if (null == converter) {
             throw new RuntimeException("暂时不支持非原生");
         }
+        if (ValidateUtil.isEmpty(value)) {
+            return primitiveNull(type);
+        }
+        return converter.convert(value);
     }
 
     /**
@@ -47,10 +34,28 @@ public final class CastUtil {
      * @return 对应的空值
      */
     public static Object primitiveNull(Class<?> type) {
-        if (type.equals(int.class) || type.equals(double.class) || type.equals(short.class)
-                || type.equals(long.class) || type.equals(byte.class) || type.equals(float.class)) {
+        // 返回值类型要与参数类型一致, MethodHandle等调用方式不会像反射那样做基本类型拓宽
+        if (type.equals(int.class)) {
             return 0;
         }
+        if (type.equals(long.class)) {
+            return 0L;
+        }
+        if (type.equals(double.class)) {
+            return 0D;
+        }
+        if (type.equals(float.class)) {
+            return 0F;
+        }
+        if (type.equals(short.class)) {
+            return (short) 0;
+        }
+        if (type.equals(byte.class)) {
+            return (byte) 0;
+        }
+        if (type.equals(char.class)) {
+            return (char) 0;
+        }
         if (type.equals(boolean.class)) {
             return false;
         }
@@ -0,0 +1,110 @@
+package com.murongshian.util;
+
+/**
+ * 非加密hash
+ * xxHash64, 每次处理32字节, 速度接近内存带宽, 用于响应内容的ETag等不需要抗碰撞攻击的场景
+ */
+public final class HashUtil {
+
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private HashUtil() {
+    }
+
+    /**
+     * 计算xxHash64
+     *
+     * @param b    数据
+     * @param off  起始位置
+     * @param len  长度
+     * @param seed 种子
+     * @return hash值
+     */
+    public static long xxHash64(byte[] b, int off, int len, long seed) {
+        int end = off + len;
+        int pos = off;
+        long h;
+        if (len >= 32) {
+            long v1 = seed + PRIME1 + PRIME2;
+            long v2 = seed + PRIME2;
+            long v3 = seed;
+            long v4 = seed - PRIME1;
+            int limit = end - 32;
+            do {
+                v1 = round(v1, getLong(b, pos));
+                v2 = round(v2, getLong(b, pos + 8));
+                v3 = round(v3, getLong(b, pos + 16));
+                v4 = round(v4, getLong(b, pos + 24));
+                pos += 32;
+            } while (pos <= limit);
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+        } else {
+            h = seed + PRIME5;
+        }
+        h += len;
+        while (pos + 8 <= end) {
+            h ^= round(0, getLong(b, pos));
+            h = Long.rotateLeft(h, 27) * PRIME1 + PRIME4;
+            pos += 8;
+        }
+        if (pos + 4 <= end) {
+            h ^= (getInt(b, pos) & 0xFFFFFFFFL) * PRIME1;
+            h = Long.rotateLeft(h, 23) * PRIME2 + PRIME3;
+            pos += 4;
+        }
+        while (pos < end) {
+            h ^= (b[pos] & 0xFF) * PRIME5;
+            h = Long.rotateLeft(h, 11) * PRIME1;
+            pos++;
+        }
+        h ^= h >>> 33;
+        h *= PRIME2;
+        h ^= h >>> 29;
+        h *= PRIME3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME1;
+    }
+
+    private static long mergeRound(long acc, long val) {
+        acc ^= round(0, val);
+        return acc * PRIME1 + PRIME4;
+    }
+
+    /**
+     * 按小端序读取8字节
+     */
+    private static long getLong(byte[] b, int i) {
+        return (b[i] & 0xFFL)
+                | (b[i + 1] & 0xFFL) << 8
+                | (b[i + 2] & 0xFFL) << 16
+                | (b[i + 3] & 0xFFL) << 24
+                | (b[i + 4] & 0xFFL) << 32
+                | (b[i + 5] & 0xFFL) << 40
+                | (b[i + 6] & 0xFFL) << 48
+                | (b[i + 7] & 0xFFL) << 56;
+    }
+
+    /**
+     * 按小端序读取4字节
+     */
+    private static int getInt(byte[] b, int i) {
+        return (b[i] & 0xFF)
+                | (b[i + 1] & 0xFF) << 8
+                | (b[i + 2] & 0xFF) << 16
+                | (b[i + 3] & 0xFF) << 24;
+    }
+}
@@ -0,0 +1,99 @@
+package com.murongshian.mvc;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RequestKeysTest {
+
+    private static final String[] NONE = new String[0];
+
+    private static String key(Map<String, String[]> params) {
+        return RequestKeys.of("/a", params, NONE, name -> null, NONE, name -> null);
+    }
+
+    private static String keyWithHeader(String value) {
+        return RequestKeys.of("/a", Collections.emptyMap(), new String[]{"X-Tenant"}, name -> value, NONE, name -> null);
+    }
+
+    private static String keyWithCookie(String value) {
+        return RequestKeys.of("/a", Collections.emptyMap(), NONE, name -> null, new String[]{"session"}, name -> value);
+    }
+
+    @Test
+    public void encodedSeparatorsDoNotCollide() {
+        Map<String, String[]> one = new HashMap<>();
+        one.put("a", new String[]{"1&b=2"});
+        Map<String, String[]> two = new HashMap<>();
+        two.put("a", new String[]{"1"});
+        two.put("b", new String[]{"2"});
+        assertNotEquals(key(one), key(two));
+    }
+
+    @Test
+    public void multipleValuesDoNotCollideWithJoinedValue() {
+        Map<String, String[]> joined = new HashMap<>();
+        joined.put("a", new String[]{"1", "2"});
+        Map<String, String[]> single = new HashMap<>();
+        single.put("a", new String[]{"12"});
+        assertNotEquals(key(joined), key(single));
+    }
+
+    @Test
+    public void parameterOrderIsNormalized() {
+        Map<String, String[]> ab = new LinkedHashMap<>();
+        ab.put("a", new String[]{"1"});
+        ab.put("b", new String[]{"2"});
+        Map<String, String[]> ba = new LinkedHashMap<>();
+        ba.put("b", new String[]{"2"});
+        ba.put("a", new String[]{"1"});
+        assertEquals(key(ab), key(ba));
+    }
+
+    @Test
+    public void absentHeaderDiffersFromLiteralNull() {
+        assertNotEquals(keyWithHeader(null), keyWithHeader("null"));
+        assertNotEquals(keyWithHeader(null), keyWithHeader("-"));
+        assertNotEquals(keyWithHeader(null), keyWithHeader(""));
+        assertEquals(keyWithHeader("t1"), keyWithHeader("t1"));
+        assertNotEquals(keyWithHeader("t1"), keyWithHeader("t2"));
+    }
+
+    @Test
+    public void cookiesArePartOfKey() {
+        assertNotEquals(keyWithCookie("u1"), keyWithCookie("u2"));
+        assertNotEquals(keyWithCookie(null), keyWithCookie("null"));
+    }
+
+    @Test
+    public void headerValueCannotForgeParameter() {
+        Map<String, String[]> params = new HashMap<>();
+        params.put("x", new String[]{"1"});
+        String forged = RequestKeys.of("/a", Collections.emptyMap(), new String[]{"H"}, name -> "1:xh1:H-", NONE, name -> null);
+        assertNotEquals(RequestKeys.of("/a", params, new String[]{"H"}, name -> null, NONE, name -> null), forged);
+    }
+
+    @Test
+    public void formatIsPartOfKey() {
+        String key = key(Collections.emptyMap());
+        assertNotEquals(key, RequestKeys.withFormat(key, "application/x-doodle-binary"));
+    }
+
+    @Test
+    public void matchesOnlyExactPath() {
+        Map<String, String[]> params = new HashMap<>();
+        params.put("id", new String[]{"1"});
+        String key = RequestKeys.of("/a/1", params, NONE, name -> null, NONE, name -> null);
+        assertTrue(RequestKeys.matchesPath(key, "/a/1"));
+        assertFalse(RequestKeys.matchesPath(key, "/a"));
+        assertFalse(RequestKeys.matchesPath(RequestKeys.of("/a/10", params, NONE, name -> null, NONE, name -> null), "/a/1"));
+    }
+}
@@ -0,0 +1,162 @@
+package com.murongshian.mvc.cache;
+
+import com.murongshian.mvc.RequestKeys;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseCacheTest {
+
+    private static final long TTL = TimeUnit.MINUTES.toNanos(1);
+
+    private static final String[] NONE = new String[0];
+
+    private final ResponseCache cache = new ResponseCache(10_000, 1000);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @After
+    public void shutdown() {
+        cache.shutdown();
+    }
+
+    private static String key(String path) {
+        return RequestKeys.of(path, Collections.emptyMap(), NONE, name -> null, NONE, name -> null);
+    }
+
+    /**
+     * 获取响应, 未命中时加载size字节的响应体
+     */
+    private CachedResponse get(String path, int size) {
+        return cache.get(key(path), TTL, 0, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(new CachedResponse("application/json", null, new byte[size]));
+        }).toCompletableFuture().join();
+    }
+
+    /**
+     * 是否已缓存, 只增加一次访问频率
+     */
+    private boolean isCached(String path) {
+        return null != cache.get(key(path), TTL, 0, () -> CompletableFuture.completedFuture(null))
+                .toCompletableFuture().join();
+    }
+
+    private void access(String path, int size, int times) {
+        for (int i = 0; i < times; i++) {
+            get(path, size);
+        }
+    }
+
+    @Test
+    public void hitDoesNotReload() {
+        CachedResponse first = get("/a", 100);
+        CachedResponse second = get("/a", 100);
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void responseLargerThanCacheIsNotCached() {
+        get("/a", 20_000);
+        get("/a", 20_000);
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getWeightedSize());
+    }
+
+    @Test
+    public void evictsLeastFrequentEntryToStayWithinMaxBytes() {
+        access("/cold", 2_000, 1);
+        access("/hot1", 2_000, 10);
+        access("/hot2", 2_000, 10);
+        access("/hot3", 2_000, 10);
+        // 访问频率高于/cold, 准入并淘汰/cold
+        access("/new", 2_500, 3);
+
+        assertTrue(cache.getWeightedSize() <= 10_000);
+        assertTrue(isCached("/new"));
+        assertTrue(isCached("/hot1"));
+        assertTrue(isCached("/hot2"));
+        assertTrue(isCached("/hot3"));
+        assertFalse(isCached("/cold"));
+    }
+
+    @Test
+    public void rejectedEntryEvictsNothing() {
+        access("/cold", 2_000, 1);
+        access("/hot1", 2_000, 10);
+        access("/hot2", 2_000, 10);
+        access("/hot3", 2_000, 10);
+        long size = cache.getWeightedSize();
+        int loaded = loads.get();
+        // 需要淘汰/cold和一个常用的条目才能放下, 访问频率低于常用条目, 不准入
+        access("/new", 4_000, 2);
+
+        assertEquals(size, cache.getWeightedSize());
+        assertEquals(loaded + 2, loads.get());
+        access("/cold", 2_000, 1);
+        access("/hot1", 2_000, 1);
+        access("/hot2", 2_000, 1);
+        access("/hot3", 2_000, 1);
+        assertEquals(loaded + 2, loads.get());
+    }
+
+    @Test
+    public void invalidateRemovesOnlyThePath() {
+        get("/a", 100);
+        get("/ab", 100);
+        cache.invalidate("/a");
+        get("/a", 100);
+        get("/ab", 100);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void invalidatingAnotherPathKeepsInFlightLoad() {
+        CompletableFuture<CachedResponse> pending = new CompletableFuture<>();
+        cache.get(key("/b"), TTL, 0, () -> pending);
+        cache.invalidate("/a");
+        pending.complete(new CachedResponse("application/json", null, new byte[10]));
+        assertTrue(isCached("/b"));
+    }
+
+    @Test
+    public void invalidatingThePathDropsInFlightLoad() {
+        CompletableFuture<CachedResponse> pending = new CompletableFuture<>();
+        cache.get(key("/a"), TTL, 0, () -> pending);
+        cache.invalidate("/a");
+        pending.complete(new CachedResponse("application/json", null, new byte[10]));
+        assertFalse(isCached("/a"));
+    }
+
+    @Test
+    public void refreshThatIsNotCachedCanBeRetried() throws InterruptedException {
+        String key = key("/a");
+        long stale = TimeUnit.MINUTES.toNanos(1);
+        // 立即过期, 之后的命中都在后台刷新; 刷新结果超出缓存大小, 不替换过期的条目
+        cache.get(key, 0, stale, () -> CompletableFuture.completedFuture(
+                new CachedResponse("application/json", null, new byte[10])));
+        AtomicInteger refreshes = new AtomicInteger();
+        Supplier<CompletionStage<CachedResponse>> tooLarge = () -> {
+            refreshes.incrementAndGet();
+            return CompletableFuture.completedFuture(new CachedResponse("application/json", null, new byte[20_000]));
+        };
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (refreshes.get() < 3 && System.nanoTime() < deadline) {
+            cache.get(key, 0, stale, tooLarge);
+            Thread.sleep(5);
+        }
+        assertTrue(refreshes.get() >= 3);
+    }
+}
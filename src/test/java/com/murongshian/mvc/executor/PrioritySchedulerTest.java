@@ -0,0 +1,67 @@
+package com.murongshian.mvc.executor;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PrioritySchedulerTest {
+
+    private final PriorityScheduler scheduler = new PriorityScheduler(1, 1, 1000);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @After
+    public void shutdown() {
+        release.countDown();
+        scheduler.shutdown();
+    }
+
+    /**
+     * 占住唯一的工作线程
+     */
+    private void blockWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.submit(Priority.INTERACTIVE, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void fullQueueRejects() throws InterruptedException {
+        blockWorker();
+        scheduler.submit(Priority.BATCH, () -> {
+        });
+        try {
+            scheduler.submit(Priority.BATCH, () -> {
+            });
+            fail();
+        } catch (RejectedExecutionException expected) {
+            // 队列已满
+        }
+    }
+
+    @Test
+    public void cancelledTaskFreesQueueCapacity() throws InterruptedException {
+        blockWorker();
+        Future<?> queued = scheduler.submit(Priority.BATCH, () -> {
+        });
+        assertTrue(queued.cancel(true));
+        CountDownLatch ran = new CountDownLatch(1);
+        scheduler.submit(Priority.BATCH, ran::countDown);
+        release.countDown();
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+}
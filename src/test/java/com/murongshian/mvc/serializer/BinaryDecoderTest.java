@@ -0,0 +1,161 @@
+package com.murongshian.mvc.serializer;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class BinaryDecoderTest {
+
+    /**
+     * 变长整数Integer.MAX_VALUE
+     */
+    private static final int[] MAX_INT_VARINT = {0xFF, 0xFF, 0xFF, 0xFF, 0x07};
+
+    private static byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySerializer.INSTANCE.getWriter(Object.class).write(value, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] message(int tag, int... rest) {
+        byte[] bytes = new byte[3 + rest.length];
+        bytes[0] = (byte) BinaryFormat.MAGIC;
+        bytes[1] = (byte) BinaryFormat.VERSION;
+        bytes[2] = (byte) tag;
+        for (int i = 0; i < rest.length; i++) {
+            bytes[3 + i] = (byte) rest[i];
+        }
+        return bytes;
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Test
+    public void decodesValuesLargerThanPreallocation() throws IOException {
+        byte[] data = new byte[100 * 1024];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("text", repeat('x', 50 * 1024));
+        value.put("data", data);
+        value.put("list", Arrays.asList(1, 2L << 40, "a"));
+
+        JSONObject decoded = (JSONObject) BinaryDecoder.decode(encode(value));
+
+        assertEquals(value.get("text"), decoded.get("text"));
+        assertArrayEquals(data, (byte[]) decoded.get("data"));
+        assertEquals(Arrays.asList(1, 2L << 40, "a"), decoded.get("list"));
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedStringFails() throws IOException {
+        byte[] bytes = encode(repeat('x', 50 * 1024));
+        BinaryDecoder.decode(Arrays.copyOf(bytes, bytes.length / 2));
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedArrayFails() throws IOException {
+        byte[] bytes = encode(Arrays.asList(1, 2, 3));
+        BinaryDecoder.decode(Arrays.copyOf(bytes, bytes.length - 1));
+    }
+
+    @Test(expected = EOFException.class)
+    public void oversizedBytesLengthFailsAtEnd() throws IOException {
+        BinaryDecoder.decode(message(BinaryFormat.BYTES, MAX_INT_VARINT));
+    }
+
+    @Test(expected = EOFException.class)
+    public void oversizedStringLengthFailsAtEnd() throws IOException {
+        BinaryDecoder.decode(message(BinaryFormat.STRING, MAX_INT_VARINT));
+    }
+
+    @Test(expected = EOFException.class)
+    public void oversizedArrayCountFailsAtEnd() throws IOException {
+        BinaryDecoder.decode(message(BinaryFormat.ARRAY, MAX_INT_VARINT));
+    }
+
+    @Test(expected = EOFException.class)
+    public void oversizedObjectCountFailsAtEnd() throws IOException {
+        BinaryDecoder.decode(message(BinaryFormat.OBJECT, MAX_INT_VARINT));
+    }
+
+    @Test(expected = EOFException.class)
+    public void oversizedKeyLengthFailsAtEnd() throws IOException {
+        // 1个属性, 属性名长度为Integer.MAX_VALUE / 2
+        BinaryDecoder.decode(message(BinaryFormat.OBJECT, 0x01, 0xFE, 0xFF, 0xFF, 0xFF, 0x07));
+    }
+
+    @Test(expected = IOException.class)
+    public void lengthBeyondIntFails() throws IOException {
+        // 长度为2^35
+        BinaryDecoder.decode(message(BinaryFormat.BYTES, 0x80, 0x80, 0x80, 0x80, 0x80, 0x01));
+    }
+
+    @Test(expected = IOException.class)
+    public void keyIndexBeyondIntFails() throws IOException {
+        // 1个属性, 引用第2^34个属性名
+        BinaryDecoder.decode(message(BinaryFormat.OBJECT, 0x01, 0x81, 0x80, 0x80, 0x80, 0x80, 0x01));
+    }
+
+    @Test
+    public void emptyArrayAndObject() throws IOException {
+        assertEquals(new JSONArray(), BinaryDecoder.decode(message(BinaryFormat.ARRAY, 0x00)));
+        assertEquals(new JSONObject(), BinaryDecoder.decode(message(BinaryFormat.OBJECT, 0x00)));
+    }
+
+    /**
+     * depth层嵌套的单元素数组, 最内层为null
+     */
+    private static byte[] nestedArrays(int depth) {
+        byte[] bytes = new byte[2 + depth * 2 + 1];
+        bytes[0] = (byte) BinaryFormat.MAGIC;
+        bytes[1] = (byte) BinaryFormat.VERSION;
+        for (int i = 0; i < depth; i++) {
+            bytes[2 + i * 2] = BinaryFormat.ARRAY;
+            bytes[3 + i * 2] = 1;
+        }
+        bytes[bytes.length - 1] = BinaryFormat.NULL;
+        return bytes;
+    }
+
+    @Test
+    public void decodesNestingTheEncoderAllows() throws IOException {
+        Object value = null;
+        for (int i = 0; i <= FieldOrderSerializer.MAX_DEPTH; i++) {
+            value = Collections.singletonList(value);
+        }
+        Object decoded = BinaryDecoder.decode(encode(value));
+        for (int i = 0; i <= FieldOrderSerializer.MAX_DEPTH; i++) {
+            decoded = ((JSONArray) decoded).get(0);
+        }
+        assertNull(decoded);
+    }
+
+    @Test
+    public void deepNestingFailsWithIOException() {
+        try {
+            BinaryDecoder.decode(nestedArrays(100_000));
+            fail();
+        } catch (IOException expected) {
+            // 嵌套过深
+        }
+    }
+}